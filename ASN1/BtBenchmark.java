@@ -0,0 +1,244 @@
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * benchmark of the traversal modes over generated panels of different sizes, defect densities and
+ * defect patterns. For every case it reports the throughput, the bytes allocated per traversal and
+ * the number of threads created. The allocation is counted per live platform thread, so it is only
+ * reported when no thread starts or ends during the measured traversals and the threads aren't virtual
+ * @author Ajevan
+ *
+ */
+public class BtBenchmark {
+	
+	public enum Pattern {
+		UNIFORM, //defective bulbs spread at random
+		CLUSTERED, //defective bulbs in one block in the middle of the panel
+		STRIDED //defective bulbs evenly spaced
+	}
+	
+	private static final double[] DENSITIES = {0, 0.001, 0.5, 1}; //fraction of defective bulbs
+	private static final long MAX_THREADS = 20000; //cases that would create more platform threads are skipped
+	
+	private static final com.sun.management.ThreadMXBean threadBean =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+	
+	/**
+	 * create a panel with the given size, density and pattern
+	 * @param size number of bulbs
+	 * @param density fraction of defective bulbs
+	 * @param pattern where the defective bulbs are
+	 * @param rnd random number generator
+	 * @return array filled with "0" and "1" for defective and correct bulbs respectively
+	 */
+	public static int[] panel(int size, double density, Pattern pattern, Random rnd) {
+		int[] a = new int[size];
+		int defective = (int) Math.round(size * density); //number of defective bulbs
+		
+		for (int i = 0; i < size; i++) {
+			a[i] = 1;
+		}
+		
+		if (pattern == Pattern.UNIFORM) {
+			for (int i = 0; i < size; i++) {
+				if (rnd.nextDouble() < density) {
+					a[i] = 0;
+				}
+			}
+		}
+		
+		else if (pattern == Pattern.CLUSTERED) {
+			int start = (size - defective)/2;
+			
+			for (int i = start; i < start + defective; i++) {
+				a[i] = 0;
+			}
+		}
+		
+		else if (defective > 0) {
+			double stride = (double) size / defective;
+			
+			for (int i = 0; i < defective; i++) {
+				a[(int) (i * stride)] = 0;
+			}
+		}
+		return a;
+	}
+	
+	/**
+	 * return the bytes allocated so far by the given threads
+	 * @param ids thread ids
+	 * @return allocated bytes per thread; -1 for a thread that ended
+	 */
+	private static long[] allocatedBytes(long[] ids) {
+		return threadBean.getThreadAllocatedBytes(ids);
+	}
+	
+	/**
+	 * return the bytes the given threads allocated between two counts, if none of them ended
+	 * @param before counts at the start
+	 * @param after counts at the end
+	 * @return allocated bytes; -1 if a thread ended in between, so its bytes are lost
+	 */
+	private static long allocatedBetween(long[] before, long[] after) {
+		long total = 0;
+		
+		for (int i = 0; i < before.length; i++) {
+			if (before[i] < 0) {
+				continue; //ended before the start
+			}
+			if (after[i] < 0) {
+				return -1;
+			}
+			total += after[i] - before[i];
+		}
+		return total;
+	}
+	
+	/**
+	 * returns true if the mode can run on this panel
+	 * @param a the panel
+	 * @param mode traversal mode
+	 * @return false if the mode needs virtual threads that this Java version doesn't have, or would
+	 * create too many platform threads
+	 * @throws Exception
+	 */
+	private static boolean canRun(int[] a, BtTraversal.Mode mode) throws Exception {
+		if (mode == BtTraversal.Mode.VIRTUAL) {
+			try {
+				BtTraversal.newVirtualThreadExecutor().shutdown();
+			}
+			catch (Exception ex) {
+				return false;
+			}
+		}
+		
+		if (mode == BtTraversal.Mode.THREADS) {
+			TraversalStats stats = new TraversalStats(1);
+			BtTraversal.traverse(a, BtTraversal.Mode.PACKED, 0, stats); //same split tree, without the threads
+			return stats.getThreads() <= MAX_THREADS;
+		}
+		return true;
+	}
+	
+	/**
+	 * time one case and print its results
+	 * @param a the panel
+	 * @param mode traversal mode
+	 * @param leafSize sequential cutoff for the fork-join mode
+	 * @param label description of the panel
+	 * @param minMillis minimum measured time of the case
+	 * @throws Exception
+	 */
+	private static void measure(int[] a, BtTraversal.Mode mode, int leafSize, String label, long minMillis) throws Exception {
+		//the bulbs are packed once, so that the packed mode is timed without the packing
+		BulbBitSet packed = mode == BtTraversal.Mode.PACKED ? BulbBitSet.fromArray(a) : null;
+		
+		//warm up so that the measured runs use compiled code
+		long warmEnd = System.nanoTime() + minMillis * 1000000L / 2;
+		do {
+			traverse(a, packed, mode, leafSize, new TraversalStats(1));
+		} while (System.nanoTime() < warmEnd);
+		
+		TraversalStats stats = null; //counters of the last measured run
+		int ops = 0; //number of measured traversals
+		long started = threadBean.getTotalStartedThreadCount();
+		long[] ids = threadBean.getAllThreadIds(); //the live threads, whose allocation is counted
+		long[] allocated = allocatedBytes(ids);
+		long start = System.nanoTime();
+		long end = start + minMillis * 1000000L;
+		long now;
+		
+		do {
+			stats = new TraversalStats(1);
+			traverse(a, packed, mode, leafSize, stats);
+			ops++;
+			now = System.nanoTime();
+		} while (now < end);
+		
+		double seconds = (now - start) / 1e9;
+		long allocatedDuring = allocatedBetween(allocated, allocatedBytes(ids));
+		long startedDuring = threadBean.getTotalStartedThreadCount() - started;
+		
+		//the bytes of threads that started or ended during the runs, and of virtual threads, aren't counted
+		String allocPerOp = allocatedDuring < 0 || startedDuring > 0 || mode == BtTraversal.Mode.VIRTUAL ? "n/a"
+				: String.format("%.0f", (double) allocatedDuring / ops);
+		
+		System.out.println(String.format("%-10s %-32s %12.2f %12.3f %14s %10d %12.1f", mode, label,
+				ops / seconds, seconds * 1000 / ops, allocPerOp, stats.getThreads(), (double) startedDuring / ops));
+	}
+	
+	/**
+	 * traverse a panel once
+	 * @param a the panel
+	 * @param packed the panel packed 64 bulbs per word, for the packed mode
+	 * @param mode traversal mode
+	 * @param leafSize sequential cutoff for the fork-join mode
+	 * @param stats counters of the traversal
+	 * @throws Exception
+	 */
+	private static void traverse(int[] a, BulbBitSet packed, BtTraversal.Mode mode, int leafSize, TraversalStats stats) throws Exception {
+		if (packed != null) {
+			BtTraversal.findDefectivePacked(packed, stats);
+		}
+		else {
+			BtTraversal.traverse(a, mode, leafSize, stats);
+		}
+	}
+	
+	/**
+	 * the optional arguments are the largest size as a power of 10 (default 6, up to 8), the minimum
+	 * measured time per case in milliseconds (default 1000) and the leaf size for the fork-join mode
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		
+		try {
+			int maxExp = args.length > 0 ? Integer.parseInt(args[0]) : 6; //largest size is 10^maxExp
+			long minMillis = args.length > 1 ? Long.parseLong(args[1]) : 1000; //measured time per case
+			int leafSize = args.length > 2 ? Integer.parseInt(args[2]) : BtTraversal.DEFAULT_LEAF_SIZE;
+			Random rnd = new Random(346); //fixed seed so that every run uses the same panels
+			
+			if (maxExp < 3 || maxExp > 8) {
+				throw new Exception("Largest size must be between 10^3 and 10^8!");
+			}
+			
+			System.out.println(String.format("%-10s %-32s %12s %12s %14s %10s %12s", "Mode", "Panel", "ops/s",
+					"ms/op", "alloc B/op", "threads", "started/op"));
+			
+			for (int exp = 3; exp <= maxExp; exp++) {
+				int size = (int) Math.pow(10, exp);
+				
+				for (int d = 0; d < DENSITIES.length; d++) {
+					for (Pattern pattern : Pattern.values()) {
+						
+						//with no or only defective bulbs, every pattern gives the same panel
+						if ((DENSITIES[d] == 0 || DENSITIES[d] == 1) && pattern != Pattern.UNIFORM) {
+							continue;
+						}
+						
+						int[] a = panel(size, DENSITIES[d], pattern, rnd);
+						String label = String.format("n=10^%d d=%.1f%% %s", exp, DENSITIES[d] * 100, pattern);
+						
+						for (BtTraversal.Mode mode : BtTraversal.Mode.values()) {
+							if (canRun(a, mode)) {
+								measure(a, mode, leafSize, label, minMillis);
+							}
+							else {
+								System.out.println(String.format("%-10s %-32s %12s", mode, label, "skipped"));
+							}
+						}
+					}
+				}
+			}
+			System.out.println("alloc B/op counts live platform threads only; it is n/a where threads started or ended");
+			System.out.println("during the measured traversals (THREADS) or are virtual (VIRTUAL). PACKED is timed");
+			System.out.println("without packing the panel, which is done once before the measured traversals");
+		}
+		catch (Exception ex) {
+			System.out.println(ex.getMessage());
+		}
+
+	}
+
+}
@@ -1,5 +1,11 @@
-import java.io.File;
-import java.util.Scanner;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * recursive  threading  method  to  find  the defective bulbs and  the  number  of  threads
@@ -9,23 +15,37 @@ import java.util.Scanner;
  */
 public class BtTraversal {
 	
-	public static int numOfThreads = 1; //number of threads; initially we have the main thread
+	public enum Mode {
+		THREADS, //a new thread for every split
+		FORKJOIN, //fork-join tasks on a shared pool, small sub arrays are scanned sequentially
+		SINGLEPASS, //one sequential pass that still counts the threads the split tree would create
+		PACKED, //bulbs packed 64 per word, words without a defective bulb are skipped as a whole
+		VIRTUAL //a new virtual thread for every split
+	}
+	
+	public static final int DEFAULT_LEAF_SIZE = 4096; //default sequential cutoff for the fork-join mode
+	
+	static final int[] NONE = new int[0]; //a sub array without defective bulbs
+	
+	private static final ForkJoinPool pool = ForkJoinPool.commonPool(); //pool shared by all fork-join traversals
 	
 	/**
 	 * recursive method that finds defective bulbs through the use of separate threads for the left
 	 * and right sub arrays
 	 * @param a array filled with "0" and "1" for defective and correct bulbs respectively
-	 * @param lo the sub array start index 
+	 * @param lo the sub array start index
 	 * @param hi the sub array end index
+	 * @param depth depth of the sub array; the whole array is depth 0
+	 * @param stats counters of this traversal
+	 * @return the defective bulbs in index order
 	 */
-	public static void findDefective(int[] a, int lo, int hi) {
+	public static DefectList findDefective(int[] a, int lo, int hi, int depth, TraversalStats stats) {
+		
+		stats.visit(depth);
 		
 		// if this is a single element sub array, check if bulb defective
 		if (hi <= lo) {
-			if (a[lo] == 0) {
-				System.out.println("Bulb #" + (lo+1) + " is defective.");
-			}
-			return;
+			return a[lo] == 0 ? DefectList.of(lo) : DefectList.EMPTY;
 		}
 		
 		try {
@@ -34,85 +54,327 @@ public class BtTraversal {
 				if (a[i] == 0) {
 					
 					int mid = lo + (hi - lo)/2; //pivot point
+					DefectList[] found = new DefectList[2]; //defective bulbs found by each thread
 					
-					numOfThreads++;
+					stats.split(depth);
 					Thread t1 = new Thread(new Runnable() {
 						public void run() {
-							findDefective(a, lo, mid); //left sub array
+							stats.threadStarted();
+							found[0] = findDefective(a, lo, mid, depth + 1, stats); //left sub array
+							stats.threadFinished();
 						}
 					});
 					t1.start();
 					
-					numOfThreads++;
 					Thread t2 = new Thread(new Runnable() {
 						public void run() {
-							findDefective(a, mid + 1, hi); //right sub array
+							stats.threadStarted();
+							found[1] = findDefective(a, mid + 1, hi, depth + 1, stats); //right sub array
+							stats.threadFinished();
 						}
 					});
 					t2.start();
 					
 					t1.join(); //wait for the 2 threads to finish
 					t2.join();
-					break;
+					return DefectList.join(found[0], found[1]);
 				}
 			}
 		}
 		catch (Exception ex) {
 			System.out.println("Something went wrong in findDefective method");
 		}
+		return DefectList.EMPTY;
 	}
 	
-	public static void main(String[] args) {
+	/**
+	 * same as findDefective, but the 2 sub arrays are submitted to the executor, which creates a
+	 * (virtual) thread for each of them. The split only returns once both sub arrays are done
+	 * @param a array filled with "0" and "1" for defective and correct bulbs respectively
+	 * @param lo the sub array start index
+	 * @param hi the sub array end index
+	 * @param depth depth of the sub array; the whole array is depth 0
+	 * @param stats counters of this traversal
+	 * @param executor executor that creates a thread per task
+	 * @return the defective bulbs in index order
+	 */
+	public static DefectList findDefective(int[] a, int lo, int hi, int depth, TraversalStats stats, ExecutorService executor) {
+		
+		stats.visit(depth);
+		
+		// if this is a single element sub array, check if bulb defective
+		if (hi <= lo) {
+			return a[lo] == 0 ? DefectList.of(lo) : DefectList.EMPTY;
+		}
 		
 		try {
-			File inputFile = new File("input.txt");
-			Scanner sc = new Scanner(inputFile);
-			
-			int[] elements; //array filled with "0" and "1" for defective and correct bulbs respectively
-			int actualSize = -1; //the actual size of the array; start at -1 since the first element is the array size
-			boolean getSize = true; //if its the first line, we know that it is the array size
-			
-			//get the actual number of elements in the file
-			while (sc.hasNextInt()) {
-				sc.nextInt();
-				actualSize++;
+			// if this array has a defective bulb, then separate into 2 sub arrays with each its own thread
+			for (int i = lo; i <= hi; i++) {
+				if (a[i] == 0) {
+					
+					int mid = lo + (hi - lo)/2; //pivot point
+					
+					stats.split(depth);
+					Future<DefectList> f1 = executor.submit(new Callable<DefectList>() {
+						public DefectList call() {
+							stats.threadStarted();
+							DefectList found = findDefective(a, lo, mid, depth + 1, stats, executor); //left sub array
+							stats.threadFinished();
+							return found;
+						}
+					});
+					
+					Future<DefectList> f2 = executor.submit(new Callable<DefectList>() {
+						public DefectList call() {
+							stats.threadStarted();
+							DefectList found = findDefective(a, mid + 1, hi, depth + 1, stats, executor); //right sub array
+							stats.threadFinished();
+							return found;
+						}
+					});
+					
+					return DefectList.join(f1.get(), f2.get()); //wait for the 2 threads to finish
+				}
 			}
+		}
+		catch (Exception ex) {
+			System.out.println("Something went wrong in findDefective method");
+		}
+		return DefectList.EMPTY;
+	}
+	
+	/**
+	 * create an executor that starts a new virtual thread for each task
+	 * @return the executor
+	 * @throws Exception if this Java version has no virtual threads
+	 */
+	public static ExecutorService newVirtualThreadExecutor() throws Exception {
+		try {
+			//looked up at run time so that the other modes still work on Java versions without virtual threads
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		}
+		catch (NoSuchMethodException ex) {
+			throw new Exception("Virtual threads need Java 21 or newer!");
+		}
+	}
+	
+	/**
+	 * walks the same split tree as findDefective, but each bulb is only read once: every sub array
+	 * reports to its parent whether it has a defective bulb, instead of the parent scanning it beforehand,
+	 * and the defective bulbs are added to found as they are reached, left to right, so in index order.
+	 * The splits findDefective would have done are recorded in the stats
+	 * @param a array filled with "0" and "1" for defective and correct bulbs respectively
+	 * @param lo the sub array start index
+	 * @param hi the sub array end index
+	 * @param depth depth of the sub array; the whole array is depth 0
+	 * @param stats counters of this traversal
+	 * @param found the defective bulbs are added to this list
+	 * @return true if the sub array has a defective bulb
+	 */
+	public static boolean findDefectiveOnce(int[] a, int lo, int hi, int depth, TraversalStats stats, DefectList found) {
+		
+		// if this is a single element sub array, check if bulb defective
+		if (hi <= lo) {
+			if (a[lo] == 0) {
+				found.add(lo);
+				return true;
+			}
+			return false;
+		}
+		
+		int mid = lo + (hi - lo)/2; //pivot point
+		boolean left = findDefectiveOnce(a, lo, mid, depth + 1, stats, found); //left sub array
+		boolean right = findDefectiveOnce(a, mid + 1, hi, depth + 1, stats, found); //right sub array
+		
+		//findDefective would only have split this sub array if it had a defective bulb
+		if (left || right) {
+			stats.split(depth);
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * find the defective bulbs of the packed bulbs. The splits findDefective would have done are
+	 * recorded in the stats
+	 * @param bulbs the packed bulbs
+	 * @param stats counters of this traversal
+	 * @return indices of the defective bulbs in index order
+	 */
+	public static int[] findDefectivePacked(BulbBitSet bulbs, TraversalStats stats) {
+		stats.threadStarted(); //everything runs on the calling thread
+		
+		int[] found = new int[bulbs.countDefective()];
+		int n = 0;
+		
+		for (int i = bulbs.nextDefective(0); i != -1; i = bulbs.nextDefective(i + 1)) {
+			found[n++] = i;
+		}
+		
+		countSplits(bulbs, 0, bulbs.size() - 1, 0, stats);
+		stats.threadFinished();
+		return found;
+	}
+	
+	/**
+	 * record the splits findDefective would do for the sub array. Only the sub arrays with a defective
+	 * bulb are visited
+	 * @param bulbs the packed bulbs
+	 * @param lo the sub array start index
+	 * @param hi the sub array end index
+	 * @param depth depth of the sub array; the whole array is depth 0
+	 * @param stats counters of this traversal
+	 */
+	private static void countSplits(BulbBitSet bulbs, int lo, int hi, int depth, TraversalStats stats) {
+		stats.visit(depth);
+		
+		if (hi <= lo || !bulbs.hasDefective(lo, hi)) {
+			return;
+		}
+		
+		int mid = lo + (hi - lo)/2; //pivot point
+		stats.split(depth);
+		countSplits(bulbs, lo, mid, depth + 1, stats);
+		countSplits(bulbs, mid + 1, hi, depth + 1, stats);
+	}
+	
+	/**
+	 * find the defective bulbs with fork-join tasks on the shared pool. The threads of the stats are
+	 * the fork-join tasks, so it should be created with 1 initial thread for the first task
+	 * @param a array filled with "0" and "1" for defective and correct bulbs respectively
+	 * @param leafSize sub arrays of this size or less are scanned sequentially
+	 * @param stats counters of this traversal
+	 * @return indices of the defective bulbs in index order
+	 */
+	public static int[] findDefectiveForkJoin(int[] a, int leafSize, TraversalStats stats) {
+		if (a.length == 0) {
+			return NONE;
+		}
+		return pool.invoke(new DefectiveTask(a, 0, a.length - 1, 0, leafSize, stats)).toArray();
+	}
+	
+	/**
+	 * find the defective bulbs with the given mode
+	 * @param a array filled with "0" and "1" for defective and correct bulbs respectively
+	 * @param mode traversal mode
+	 * @param leafSize sub arrays of this size or less are scanned sequentially in the fork-join mode
+	 * @param stats counters of this traversal
+	 * @return indices of the defective bulbs in index order
+	 * @throws Exception
+	 */
+	public static int[] traverse(int[] a, Mode mode, int leafSize, TraversalStats stats) throws Exception {
+		
+		if (mode == Mode.FORKJOIN) {
+			return findDefectiveForkJoin(a, leafSize, stats);
+		}
+		
+		if (mode == Mode.PACKED) {
+			return findDefectivePacked(BulbBitSet.fromArray(a), stats);
+		}
+		
+		if (a.length == 0) {
+			return NONE;
+		}
+		
+		if (mode == Mode.SINGLEPASS) {
+			stats.threadStarted(); //everything runs on the calling thread
+			DefectList found = new DefectList();
+			findDefectiveOnce(a, 0, a.length - 1, 0, stats, found);
+			stats.threadFinished();
+			return found.toArray();
+		}
+		
+		if (mode == Mode.VIRTUAL) {
+			ExecutorService executor = newVirtualThreadExecutor();
 			
-			//reset the scanner to the beginning
-			sc.close(); 
-			sc = new Scanner(inputFile);
+			try {
+				return executor.submit(new Callable<DefectList>() {
+					public DefectList call() {
+						stats.threadStarted();
+						DefectList found = findDefective(a, 0, a.length - 1, 0, stats, executor);
+						stats.threadFinished();
+						return found;
+					}
+				}).get().toArray();
+			}
+			finally {
+				executor.shutdown();
+				executor.awaitTermination(1, TimeUnit.MINUTES);
+			}
+		}
+		
+		DefectList[] found = new DefectList[1]; //defective bulbs found by the thread
+		Thread t = new Thread(new Runnable() {
+			public void run() {
+				stats.threadStarted();
+				found[0] = findDefective(a, 0, a.length - 1, 0, stats);
+				stats.threadFinished();
+			}
+		});
+		t.start();
+		t.join();
+		return found[0].toArray();
+	}
+	
+	/**
+	 * write the defective bulbs to the console in one buffered pass
+	 * @param found indices of the defective bulbs
+	 * @throws Exception
+	 */
+	public static void report(int[] found) throws Exception {
+		BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+		
+		for (int i = 0; i < found.length; i++) {
+			bw.write("Bulb #");
+			bw.write(Integer.toString(found[i] + 1));
+			bw.write(" is defective.\n");
+		}
+		bw.flush(); //not closed, since that would close System.out
+	}
+	
+	/**
+	 * the optional arguments are the mode (threads, forkjoin, singlepass, packed or virtual) and the leaf size for the fork-join mode
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		
+		try {
+			Mode mode = Mode.THREADS; //traversal mode; thread per split by default
+			int leafSize = DEFAULT_LEAF_SIZE; //sequential cutoff for the fork-join mode
 			
-			elements = new int[actualSize];
+			if (args.length > 0) {
+				mode = Mode.valueOf(args[0].toUpperCase());
+			}
 			
-			//load the array with the bulbs
-			for (int i = 0; sc.hasNextInt(); i++) {
-				if (getSize) {
-					if (sc.nextInt() != actualSize) {
-						sc.close();
-						throw new Exception("Array size doesn't match!");
-					}
-					getSize = false;
-				}
-				
-				elements[i] = sc.nextInt();
+			if (args.length > 1) {
+				leafSize = Integer.parseInt(args[1]);
 				
-				if (elements[i] != 0 && elements[i] != 1) {
-					sc.close();
-					throw new Exception("Elements are not a 0 or 1!");
+				if (leafSize < 1) {
+					throw new Exception("Leaf size must be at least 1!");
 				}
 			}
-			sc.close();
 			
-			int lastIndex = actualSize - 1;
-			Thread t = new Thread(new Runnable() {
-				public void run() {
-					findDefective(elements, 0, lastIndex);
-				}
-			});
-			t.start();
-			t.join();
+			TraversalStats stats = new TraversalStats(1); //initially we have the main thread (or the first fork-join task)
+			int[] found; //indices of the defective bulbs
+			
+			if (mode == Mode.PACKED) {
+				found = findDefectivePacked(BulbLoader.loadPacked("input.txt"), stats); //bulbs never held as an int array
+			}
+			else {
+				int[] elements = BulbLoader.load("input.txt"); //array filled with "0" and "1" for defective and correct bulbs respectively
+				found = traverse(elements, mode, leafSize, stats);
+			}
 			
-			System.out.println("The number of threads for this problem is: " + numOfThreads);
+			report(found);
+			
+			if (mode == Mode.FORKJOIN) {
+				System.out.println("The number of fork-join tasks for this problem is: " + stats.getThreads()
+						+ " (leaf size " + leafSize + ", parallelism " + pool.getParallelism() + ")");
+			}
+			else {
+				System.out.println("The number of threads for this problem is: " + stats.getThreads());
+			}
+			System.out.println(stats);
 		}
 		catch (Exception ex) {
 			System.out.println(ex.getMessage());
@@ -0,0 +1,143 @@
+/**
+ * packed storage for the bulbs, one bit per bulb. A set bit is a correct bulb and a cleared bit is a
+ * defective bulb, so the defective bulbs of 64 bulbs at a time are found by inverting a word
+ * @author Ajevan
+ *
+ */
+public class BulbBitSet {
+	
+	private final long[] words; //the bulbs, 64 per word
+	private final int size; //number of bulbs
+	
+	/**
+	 * creates a panel of the given size with all bulbs defective
+	 * @param size number of bulbs
+	 */
+	public BulbBitSet(int size) {
+		if (size < 0) {
+			throw new IllegalArgumentException("Size is negative!");
+		}
+		this.size = size;
+		this.words = new long[(int) (((long) size + 63) >>> 6)];
+	}
+	
+	/**
+	 * creates a packed copy of the given bulbs
+	 * @param a array filled with "0" and "1" for defective and correct bulbs respectively
+	 * @return the packed bulbs
+	 */
+	public static BulbBitSet fromArray(int[] a) {
+		BulbBitSet bulbs = new BulbBitSet(a.length);
+		
+		for (int i = 0; i < a.length; i++) {
+			bulbs.set(i, a[i]);
+		}
+		return bulbs;
+	}
+	
+	/**
+	 * return the number of bulbs
+	 * @return size
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * return the bulb at the given index
+	 * @param i index of the bulb
+	 * @return 0 if the bulb is defective, 1 otherwise
+	 */
+	public int get(int i) {
+		return (int) (words[i >>> 6] >>> i) & 1; //the shift distance of a long only uses the lowest 6 bits
+	}
+	
+	/**
+	 * set the bulb at the given index
+	 * @param i index of the bulb
+	 * @param bulb 0 for a defective bulb, 1 for a correct bulb
+	 */
+	public void set(int i, int bulb) {
+		if (bulb == 0) {
+			words[i >>> 6] &= ~(1L << i);
+		}
+		else {
+			words[i >>> 6] |= 1L << i;
+		}
+	}
+	
+	/**
+	 * return the index of the first defective bulb at or after the given index. Words without a defective
+	 * bulb are skipped as a whole
+	 * @param from index to start searching at
+	 * @return index of the defective bulb, or -1 if there is none
+	 */
+	public int nextDefective(int from) {
+		if (from < 0) {
+			from = 0;
+		}
+		if (from >= size) {
+			return -1;
+		}
+		
+		int w = from >>> 6; //index of the word holding the bulb
+		long defective = ~words[w] & (-1L << from); //defective bulbs in this word, ignoring the ones before from
+		
+		while (defective == 0) {
+			if (++w == words.length) {
+				return -1;
+			}
+			defective = ~words[w];
+		}
+		
+		int i = (w << 6) + Long.numberOfTrailingZeros(defective);
+		return i < size ? i : -1; //the unused bits of the last word are cleared, so ignore them
+	}
+	
+	/**
+	 * return the number of defective bulbs
+	 * @return number of cleared bits
+	 */
+	public int countDefective() {
+		long correct = 0; //number of set bits
+		
+		for (int i = 0; i < words.length; i++) {
+			correct += Long.bitCount(words[i]);
+		}
+		return (int) (size - correct);
+	}
+	
+	/**
+	 * returns true if there is a defective bulb between lo and hi (inclusive). Only the words of the
+	 * sub array are read
+	 * @param lo the sub array start index
+	 * @param hi the sub array end index
+	 * @return true if a bulb is defective
+	 */
+	public boolean hasDefective(int lo, int hi) {
+		lo = Math.max(lo, 0);
+		hi = Math.min(hi, size - 1); //the unused bits of the last word are cleared, so leave them out
+		if (lo > hi) {
+			return false;
+		}
+		
+		int first = lo >>> 6; //word holding lo
+		int last = hi >>> 6; //word holding hi
+		long lastMask = -1L >>> (63 - (hi & 63)); //bulbs of the last word up to hi
+		
+		if (first == last) {
+			return (~words[first] & (-1L << lo) & lastMask) != 0;
+		}
+		if ((~words[first] & (-1L << lo)) != 0) {
+			return true;
+		}
+		
+		for (int w = first + 1; w < last; w++) {
+			if (words[w] != -1L) {
+				return true;
+			}
+		}
+		return (~words[last] & lastMask) != 0;
+	}
+
+}
@@ -0,0 +1,213 @@
+/**
+ * index over a panel of bulbs that changes over time. Every node of the split tree findDefective
+ * walks (the whole array, then lo..mid and mid+1..hi) stores how many defective bulbs it holds, so a
+ * bulb change only updates the nodes above it and a range query only goes into sub arrays that
+ * hold a defective bulb
+ * @author Ajevan
+ *
+ */
+public class BulbIndex {
+	
+	private final int size; //number of bulbs
+	private final int[] count; //number of defective bulbs of each node; node 1 is the whole array,
+							   //the children of node k are 2k (left sub array) and 2k+1 (right sub array)
+	
+	/**
+	 * builds the index over the given bulbs
+	 * @param a array filled with "0" and "1" for defective and correct bulbs respectively
+	 */
+	public BulbIndex(int[] a) {
+		if (4L * a.length > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Array is too large to index!");
+		}
+		
+		this.size = a.length;
+		this.count = new int[Math.max(1, 4 * a.length)];
+		
+		if (size > 0) {
+			build(a, 1, 0, size - 1);
+		}
+	}
+	
+	/**
+	 * fill the counts of the node and of its sub arrays
+	 * @param a the bulbs
+	 * @param node node of the sub array
+	 * @param lo the sub array start index
+	 * @param hi the sub array end index
+	 * @return number of defective bulbs in the sub array
+	 */
+	private int build(int[] a, int node, int lo, int hi) {
+		if (hi <= lo) {
+			count[node] = a[lo] == 0 ? 1 : 0;
+		}
+		else {
+			int mid = lo + (hi - lo)/2; //pivot point
+			count[node] = build(a, 2*node, lo, mid) + build(a, 2*node + 1, mid + 1, hi);
+		}
+		return count[node];
+	}
+	
+	/**
+	 * return the number of bulbs
+	 * @return size
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * return the bulb at the given index
+	 * @param i index of the bulb
+	 * @return 0 if the bulb is defective, 1 otherwise
+	 */
+	public int get(int i) {
+		checkIndex(i);
+		int node = 1, lo = 0, hi = size - 1;
+		
+		while (lo < hi) {
+			int mid = lo + (hi - lo)/2; //pivot point
+			
+			if (i <= mid) {
+				node = 2*node;
+				hi = mid;
+			}
+			else {
+				node = 2*node + 1;
+				lo = mid + 1;
+			}
+		}
+		return 1 - count[node];
+	}
+	
+	/**
+	 * change the bulb at the given index; only the nodes above the bulb are updated
+	 * @param i index of the bulb
+	 * @param bulb 0 for a defective bulb, 1 for a correct bulb
+	 */
+	public void set(int i, int bulb) {
+		checkIndex(i);
+		
+		if (bulb != 0 && bulb != 1) {
+			throw new IllegalArgumentException("Bulb is not a 0 or 1!");
+		}
+		
+		int diff = (1 - bulb) - (1 - get(i)); //change in the number of defective bulbs
+		if (diff == 0) {
+			return;
+		}
+		
+		int node = 1, lo = 0, hi = size - 1;
+		count[node] += diff;
+		
+		while (lo < hi) {
+			int mid = lo + (hi - lo)/2; //pivot point
+			
+			if (i <= mid) {
+				node = 2*node;
+				hi = mid;
+			}
+			else {
+				node = 2*node + 1;
+				lo = mid + 1;
+			}
+			count[node] += diff;
+		}
+	}
+	
+	/**
+	 * return the number of defective bulbs between lo and hi (inclusive)
+	 * @param lo the range start index
+	 * @param hi the range end index
+	 * @return number of defective bulbs
+	 */
+	public int countDefective(int lo, int hi) {
+		checkRange(lo, hi);
+		return count(1, 0, size - 1, lo, hi);
+	}
+	
+	/**
+	 * return the indices of the defective bulbs between lo and hi (inclusive) in index order. Sub arrays
+	 * without a defective bulb are not visited
+	 * @param lo the range start index
+	 * @param hi the range end index
+	 * @return indices of the defective bulbs
+	 */
+	public int[] findDefective(int lo, int hi) {
+		checkRange(lo, hi);
+		int[] found = new int[count(1, 0, size - 1, lo, hi)];
+		
+		if (found.length > 0) {
+			collect(1, 0, size - 1, lo, hi, found, 0);
+		}
+		return found;
+	}
+	
+	/**
+	 * count the defective bulbs of the node that are in the range
+	 * @param node node of the sub array
+	 * @param nodeLo the sub array start index
+	 * @param nodeHi the sub array end index
+	 * @param lo the range start index
+	 * @param hi the range end index
+	 * @return number of defective bulbs
+	 */
+	private int count(int node, int nodeLo, int nodeHi, int lo, int hi) {
+		if (count[node] == 0 || hi < nodeLo || nodeHi < lo) {
+			return 0;
+		}
+		if (lo <= nodeLo && nodeHi <= hi) {
+			return count[node];
+		}
+		
+		int mid = nodeLo + (nodeHi - nodeLo)/2; //pivot point
+		return count(2*node, nodeLo, mid, lo, hi) + count(2*node + 1, mid + 1, nodeHi, lo, hi);
+	}
+	
+	/**
+	 * add the defective bulbs of the node that are in the range to found
+	 * @param node node of the sub array
+	 * @param nodeLo the sub array start index
+	 * @param nodeHi the sub array end index
+	 * @param lo the range start index
+	 * @param hi the range end index
+	 * @param found indices of the defective bulbs
+	 * @param n number of indices already in found
+	 * @return number of indices in found after this node
+	 */
+	private int collect(int node, int nodeLo, int nodeHi, int lo, int hi, int[] found, int n) {
+		if (count[node] == 0 || hi < nodeLo || nodeHi < lo) {
+			return n;
+		}
+		if (nodeHi <= nodeLo) {
+			found[n] = nodeLo;
+			return n + 1;
+		}
+		
+		int mid = nodeLo + (nodeHi - nodeLo)/2; //pivot point
+		n = collect(2*node, nodeLo, mid, lo, hi, found, n);
+		return collect(2*node + 1, mid + 1, nodeHi, lo, hi, found, n);
+	}
+	
+	/**
+	 * check that a bulb is on the panel; the message numbers bulbs from 1, like the output
+	 * @param i index of the bulb
+	 */
+	private void checkIndex(int i) {
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException("Bulb #" + (i+1) + " is not on the panel");
+		}
+	}
+	
+	/**
+	 * check that a range of bulbs is on the panel and not empty; the message numbers bulbs from 1, like the output
+	 * @param lo the range start index
+	 * @param hi the range end index
+	 */
+	private void checkRange(int lo, int hi) {
+		if (lo < 0 || hi >= size || lo > hi) {
+			throw new IndexOutOfBoundsException("Bulbs #" + (lo+1) + " to #" + (hi+1) + " are not on the panel");
+		}
+	}
+
+}
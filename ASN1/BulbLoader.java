@@ -0,0 +1,172 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * loads the bulbs from the input file in one pass. The file is memory mapped and parsed byte by byte;
+ * the first number is the array size and is used to create the array before reading the bulbs
+ * @author Ajevan
+ *
+ */
+public class BulbLoader {
+	
+	private static final long WINDOW = 1L << 28; //number of bytes mapped at a time
+	
+	private final FileChannel channel; //channel of the input file
+	private final long fileSize; //size of the input file in bytes
+	private MappedByteBuffer buf; //the mapped part of the file
+	private long bufEnd = 0; //file position of the end of the mapped part
+	
+	private BulbLoader(FileChannel channel) throws IOException {
+		this.channel = channel;
+		this.fileSize = channel.size();
+	}
+	
+	/**
+	 * load the bulbs into an int array
+	 * @param fn filename of the input file
+	 * @return array filled with "0" and "1" for defective and correct bulbs respectively
+	 * @throws Exception if the array size doesn't match or a bulb is not a 0 or 1
+	 */
+	public static int[] load(String fn) throws Exception {
+		try (RandomAccessFile file = new RandomAccessFile(fn, "r")) {
+			BulbLoader loader = new BulbLoader(file.getChannel());
+			int[] elements = new int[loader.readSize()];
+			
+			for (int i = 0; i < elements.length; i++) {
+				elements[i] = loader.readBulb();
+			}
+			loader.checkEnd();
+			return elements;
+		}
+	}
+	
+	/**
+	 * load the bulbs packed 64 per word
+	 * @param fn filename of the input file
+	 * @return the packed bulbs
+	 * @throws Exception if the array size doesn't match or a bulb is not a 0 or 1
+	 */
+	public static BulbBitSet loadPacked(String fn) throws Exception {
+		try (RandomAccessFile file = new RandomAccessFile(fn, "r")) {
+			BulbLoader loader = new BulbLoader(file.getChannel());
+			BulbBitSet bulbs = new BulbBitSet(loader.readSize());
+			
+			for (int i = 0; i < bulbs.size(); i++) {
+				bulbs.set(i, loader.readBulb());
+			}
+			loader.checkEnd();
+			return bulbs;
+		}
+	}
+	
+	/**
+	 * read the array size at the start of the file. Every bulb takes a digit and all but the last a
+	 * separator, so a size the rest of the file can't hold doesn't match, and nothing is allocated for it
+	 * @return array size
+	 * @throws Exception
+	 */
+	private int readSize() throws Exception {
+		long size = readNumber();
+		
+		if (size < 0 || size > (remaining() + 1) / 2) {
+			throw new Exception("Array size doesn't match!");
+		}
+		if (size > Integer.MAX_VALUE - 8) {
+			throw new Exception("Array size is too large!");
+		}
+		return (int) size;
+	}
+	
+	/**
+	 * return the number of bytes of the file that haven't been read yet
+	 * @return remaining bytes
+	 */
+	private long remaining() {
+		return fileSize - bufEnd + (buf == null ? 0 : buf.remaining());
+	}
+	
+	/**
+	 * read the next bulb
+	 * @return 0 or 1
+	 * @throws Exception
+	 */
+	private int readBulb() throws Exception {
+		long bulb = readNumber();
+		
+		if (bulb == Long.MIN_VALUE) {
+			throw new Exception("Array size doesn't match!"); //less bulbs than the array size
+		}
+		if (bulb != 0 && bulb != 1) {
+			throw new Exception("Elements are not a 0 or 1!");
+		}
+		return (int) bulb;
+	}
+	
+	/**
+	 * make sure there are no more bulbs than the array size
+	 * @throws Exception
+	 */
+	private void checkEnd() throws Exception {
+		if (readNumber() != Long.MIN_VALUE) {
+			throw new Exception("Array size doesn't match!");
+		}
+	}
+	
+	/**
+	 * parse the next whitespace separated number
+	 * @return the number, or Long.MIN_VALUE at the end of the file
+	 * @throws Exception if the next token is not a number
+	 */
+	private long readNumber() throws Exception {
+		int c = nextByte();
+		
+		while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+			c = nextByte();
+		}
+		if (c == -1) {
+			return Long.MIN_VALUE;
+		}
+		
+		boolean negative = c == '-';
+		if (negative) {
+			c = nextByte();
+		}
+		
+		long num = 0;
+		int digits = 0;
+		
+		while (c >= '0' && c <= '9') {
+			if (++digits > 18) {
+				throw new Exception("Number in input file is too large!");
+			}
+			num = num*10 + (c - '0');
+			c = nextByte();
+		}
+		
+		if (digits == 0 || (c != -1 && c != ' ' && c != '\n' && c != '\r' && c != '\t')) {
+			throw new Exception("Input file contains something other than numbers!");
+		}
+		return negative ? -num : num;
+	}
+	
+	/**
+	 * return the next byte of the file, mapping the next part of the file when needed
+	 * @return the byte, or -1 at the end of the file
+	 * @throws IOException
+	 */
+	private int nextByte() throws IOException {
+		if (buf == null || !buf.hasRemaining()) {
+			if (bufEnd >= fileSize) {
+				return -1;
+			}
+			
+			long start = bufEnd;
+			bufEnd = Math.min(fileSize, start + WINDOW);
+			buf = channel.map(FileChannel.MapMode.READ_ONLY, start, bufEnd - start);
+		}
+		return buf.get() & 0xff;
+	}
+
+}
@@ -0,0 +1,116 @@
+import java.util.Arrays;
+
+/**
+ * indices of defective bulbs in index order. A list is either its own growable array, which the bulbs
+ * are added to, or the join of a left and a right list, which copies nothing; toArray copies all the
+ * indices once, so a traversal only copies its result at the root instead of at every split
+ * @author Ajevan
+ *
+ */
+public class DefectList {
+	
+	public static final DefectList EMPTY = new DefectList(0); //a sub array without defective bulbs; nothing is added to it
+	
+	private int[] indices; //the indices of this list; null for a join
+	private int size = 0; //number of indices, with those of the left and right list of a join
+	private DefectList left; //left list of a join
+	private DefectList right; //right list of a join
+	
+	/**
+	 * empty list constructor
+	 */
+	public DefectList() {
+		this(16);
+	}
+	
+	/**
+	 * empty list constructor
+	 * @param capacity number of indices before the array grows
+	 */
+	private DefectList(int capacity) {
+		indices = new int[capacity];
+	}
+	
+	/**
+	 * list of one defective bulb
+	 * @param i index of the bulb
+	 * @return the list
+	 */
+	public static DefectList of(int i) {
+		DefectList list = new DefectList(1);
+		list.add(i);
+		return list;
+	}
+	
+	/**
+	 * join the lists of a left and a right sub array. Since every index of the left sub array is smaller
+	 * than the ones of the right sub array, the result stays in index order
+	 * @param left defective bulbs of the left sub array
+	 * @param right defective bulbs of the right sub array
+	 * @return defective bulbs of both sub arrays
+	 */
+	public static DefectList join(DefectList left, DefectList right) {
+		if (left.size == 0) {
+			return right;
+		}
+		if (right.size == 0) {
+			return left;
+		}
+		
+		DefectList both = new DefectList(0);
+		both.indices = null;
+		both.left = left;
+		both.right = right;
+		both.size = left.size + right.size;
+		return both;
+	}
+	
+	/**
+	 * add a defective bulb after the ones in the list
+	 * @param i index of the bulb, larger than the indices in the list
+	 */
+	public void add(int i) {
+		if (size == indices.length) {
+			indices = Arrays.copyOf(indices, Math.max(16, 2 * size));
+		}
+		indices[size++] = i;
+	}
+	
+	/**
+	 * return the number of defective bulbs
+	 * @return size
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * return the indices in one array
+	 * @return indices of the defective bulbs in index order
+	 */
+	public int[] toArray() {
+		if (size == 0) {
+			return BtTraversal.NONE;
+		}
+		
+		int[] all = new int[size];
+		copyTo(all, 0);
+		return all;
+	}
+	
+	/**
+	 * copy the indices into an array
+	 * @param all the array
+	 * @param n position in the array of the first index
+	 */
+	private void copyTo(int[] all, int n) {
+		if (indices != null) {
+			System.arraycopy(indices, 0, all, n, size);
+		}
+		else {
+			left.copyTo(all, n);
+			right.copyTo(all, n + left.size);
+		}
+	}
+
+}
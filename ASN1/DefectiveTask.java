@@ -0,0 +1,83 @@
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * fork-join task that finds the defective bulbs of a sub array. Sub arrays that are larger than the
+ * leaf size are split into 2 sub tasks, smaller ones are scanned sequentially by the worker thread.
+ * Each task returns its defective bulbs in index order, joined from those of its sub tasks without copying
+ * @author Ajevan
+ *
+ */
+public class DefectiveTask extends RecursiveTask<DefectList> {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private final int[] a; //array filled with "0" and "1" for defective and correct bulbs respectively
+	private final int lo; //the sub array start index
+	private final int hi; //the sub array end index
+	private final int depth; //depth of the sub array; the whole array is depth 0
+	private final int leafSize; //sub arrays of this size or less are scanned sequentially
+	private final TraversalStats stats; //counters of this traversal
+	
+	/**
+	 * fork-join task constructor
+	 * @param a array filled with "0" and "1" for defective and correct bulbs respectively
+	 * @param lo the sub array start index
+	 * @param hi the sub array end index
+	 * @param depth depth of the sub array; the whole array is depth 0
+	 * @param leafSize sub arrays of this size or less are scanned sequentially
+	 * @param stats counters of this traversal
+	 */
+	public DefectiveTask(int[] a, int lo, int hi, int depth, int leafSize, TraversalStats stats) {
+		this.a = a;
+		this.lo = lo;
+		this.hi = hi;
+		this.depth = depth;
+		this.leafSize = Math.max(1, leafSize);
+		this.stats = stats;
+	}
+	
+	@Override
+	protected DefectList compute() {
+		stats.threadStarted();
+		
+		try {
+			return split();
+		}
+		finally {
+			stats.threadFinished();
+		}
+	}
+	
+	/**
+	 * scan the sub array, or split it into 2 sub tasks if it is larger than the leaf size
+	 * @return the defective bulbs in index order
+	 */
+	private DefectList split() {
+		
+		// small sub array, not worth splitting any further
+		if (hi - lo + 1 <= leafSize) {
+			DefectList found = DefectList.EMPTY;
+			
+			for (int i = lo; i <= hi; i++) {
+				if (a[i] == 0) {
+					if (found == DefectList.EMPTY) {
+						found = new DefectList();
+					}
+					found.add(i);
+				}
+			}
+			return found;
+		}
+		
+		int mid = lo + (hi - lo)/2; //pivot point
+		stats.split(depth);
+		
+		DefectiveTask left = new DefectiveTask(a, lo, mid, depth + 1, leafSize, stats);
+		DefectiveTask right = new DefectiveTask(a, mid + 1, hi, depth + 1, leafSize, stats);
+		
+		//run both sub arrays in the pool and wait for them to finish
+		invokeAll(left, right);
+		return DefectList.join(left.join(), right.join());
+	}
+
+}
@@ -0,0 +1,133 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * counters of one traversal. Safe to update from many threads at once: the counters that are
+ * incremented on every split are LongAdders, the peaks are updated with compare-and-set
+ * @author Ajevan
+ *
+ */
+public class TraversalStats {
+	
+	public static final int MAX_DEPTH = 64; //deeper than any split tree over an int indexed array
+	
+	private final LongAdder threads = new LongAdder(); //number of threads (or fork-join tasks) created
+	private final AtomicInteger live = new AtomicInteger(0); //number of threads currently running
+	private final AtomicInteger peakLive = new AtomicInteger(0); //most threads running at the same time
+	private final AtomicInteger maxDepth = new AtomicInteger(0); //deepest sub array visited; the whole array is depth 0
+	private final LongAdder[] splits = new LongAdder[MAX_DEPTH]; //number of splits at each depth
+	
+	/**
+	 * stats constructor
+	 * @param initialThreads threads that exist before the first split, e.g. the main thread
+	 */
+	public TraversalStats(long initialThreads) {
+		threads.add(initialThreads);
+		
+		for (int i = 0; i < MAX_DEPTH; i++) {
+			splits[i] = new LongAdder();
+		}
+	}
+	
+	/**
+	 * record a split of a sub array into 2 sub arrays, each with its own thread
+	 * @param depth depth of the sub array that is split
+	 */
+	public void split(int depth) {
+		splits[depth].increment();
+		threads.add(2);
+		visit(depth + 1);
+	}
+	
+	/**
+	 * record that a sub array at the given depth was visited
+	 * @param depth depth of the sub array
+	 */
+	public void visit(int depth) {
+		int max = maxDepth.get();
+		
+		while (depth > max && !maxDepth.compareAndSet(max, depth)) {
+			max = maxDepth.get();
+		}
+	}
+	
+	/**
+	 * record that a thread started running
+	 */
+	public void threadStarted() {
+		int now = live.incrementAndGet();
+		int peak = peakLive.get();
+		
+		while (now > peak && !peakLive.compareAndSet(peak, now)) {
+			peak = peakLive.get();
+		}
+	}
+	
+	/**
+	 * record that a thread is done running
+	 */
+	public void threadFinished() {
+		live.decrementAndGet();
+	}
+	
+	/**
+	 * return the number of threads (or fork-join tasks) created
+	 * @return threads
+	 */
+	public long getThreads() {
+		return threads.sum();
+	}
+	
+	/**
+	 * return the most threads that were running at the same time
+	 * @return peakLive
+	 */
+	public int getPeakLiveThreads() {
+		return peakLive.get();
+	}
+	
+	/**
+	 * return the deepest sub array visited
+	 * @return maxDepth
+	 */
+	public int getMaxDepth() {
+		return maxDepth.get();
+	}
+	
+	/**
+	 * return the number of splits at the given depth
+	 * @param depth depth of the split sub arrays
+	 * @return number of splits
+	 */
+	public long getSplits(int depth) {
+		return splits[depth].sum();
+	}
+	
+	/**
+	 * return the number of splits at each depth, up to the deepest split
+	 * @return splits per depth
+	 */
+	public long[] getSplitsPerDepth() {
+		long[] perDepth = new long[Math.min(MAX_DEPTH, getMaxDepth())];
+		
+		for (int i = 0; i < perDepth.length; i++) {
+			perDepth[i] = splits[i].sum();
+		}
+		return perDepth;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Peak live threads: ").append(getPeakLiveThreads()).append('\n');
+		sb.append("Max recursion depth: ").append(getMaxDepth()).append('\n');
+		sb.append("Splits per depth:");
+		
+		long[] perDepth = getSplitsPerDepth();
+		for (int i = 0; i < perDepth.length; i++) {
+			sb.append(' ').append(i).append('=').append(perDepth[i]);
+		}
+		return sb.toString();
+	}
+
+}
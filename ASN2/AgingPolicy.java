@@ -0,0 +1,101 @@
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * shortest remaining time first with aging, so that long jobs already in the queue are not starved.
+ * The priority of a ready process is its remaining execution time minus agingRate times how long it
+ * has been waiting; the lowest priority gets the CPU. With an aging rate of 0 this is the same as
+ * SrtfPolicy. Optionally, a process that has waited maxWaitQuanta quanta of other processes gets the
+ * CPU next no matter its priority
+ * @author Ajevan
+ *
+ */
+public class AgingPolicy implements SchedulingPolicy {
+	
+	private final double agingRate; //how much the priority improves per time unit of waiting
+	private final int maxWaitQuanta; //most quanta a process waits before it must run; 0 for no bound
+	
+	private ReadyQueue readyq; //ready processes, lowest priority at the top
+	private LinkedHashMap<Process, Long> lastRun = new LinkedHashMap<Process, Long>(); //quantum in which each ready
+																					  //process last ran, least recent first
+	private long quanta = 0; //number of quanta run so far
+	
+	/**
+	 * aging policy constructor
+	 * @param agingRate how much the priority improves per time unit of waiting
+	 * @param maxWaitQuanta most quanta a process waits before it must run; 0 for no bound
+	 */
+	public AgingPolicy(double agingRate, int maxWaitQuanta) {
+		if (agingRate < 0 || maxWaitQuanta < 0) {
+			throw new IllegalArgumentException("Aging rate and max wait must not be negative!");
+		}
+		
+		this.agingRate = agingRate;
+		this.maxWaitQuanta = maxWaitQuanta;
+		
+		//remaining - agingRate*(time - lastTime) is the same for every process up to agingRate*time,
+		//so remaining + agingRate*lastTime gives the same order and only changes when the process runs
+		this.readyq = new ReadyQueue(new Comparator<Process>() {
+			@Override
+			public int compare(Process p1, Process p2) {
+				int c = Double.compare(p1.getExecTime() + agingRate * p1.getLastTime(),
+						p2.getExecTime() + agingRate * p2.getLastTime());
+				return c != 0 ? c : Long.compare(p1.getReadySeq(), p2.getReadySeq());
+			}
+		});
+	}
+	
+	@Override
+	public String getName() {
+		return String.format("AGING(rate=%s, maxWait=%d)", agingRate, maxWaitQuanta);
+	}
+	
+	@Override
+	public void add(Process p, double time) {
+		readyq.add(p);
+		lastRun.put(p, quanta);
+	}
+	
+	@Override
+	public Process next(double time) {
+		if (maxWaitQuanta > 0 && !lastRun.isEmpty()) {
+			Iterator<Map.Entry<Process, Long>> it = lastRun.entrySet().iterator();
+			Map.Entry<Process, Long> oldest = it.next(); //the process that waited the most quanta
+			
+			if (quanta - oldest.getValue() >= maxWaitQuanta) {
+				return oldest.getKey();
+			}
+		}
+		return readyq.peek();
+	}
+	
+	@Override
+	public double quantum(Process p) {
+		return Process.QUANTUM_SHARE * p.getExecTime();
+	}
+	
+	@Override
+	public void ran(Process p, double time) {
+		quanta++;
+		readyq.update(p);
+		
+		//move the process to the end of the least recently run order
+		lastRun.remove(p);
+		lastRun.put(p, quanta);
+	}
+	
+	@Override
+	public void remove(Process p) {
+		quanta++;
+		readyq.remove(p);
+		lastRun.remove(p);
+	}
+	
+	@Override
+	public boolean isEmpty() {
+		return readyq.isEmpty();
+	}
+
+}
@@ -1,6 +1,5 @@
-import java.io.File;
+import java.io.IOException;
 import java.util.Arrays;
-import java.util.Scanner;
 
 /**
  * driver class with main function that reads input file and starts the scheduler
@@ -9,53 +8,126 @@ import java.util.Scanner;
  */
 public class App {
 
+	/**
+	 * create the scheduling policy named in the arguments
+	 * @param args the policy name followed by its settings
+	 * @param from index of the policy name in args
+	 * @return the policy; shortest remaining time first if no policy is named
+	 * @throws Exception if the policy is unknown
+	 */
+	public static SchedulingPolicy policy(String[] args, int from) throws Exception {
+		String name = args.length > from ? args[from].toLowerCase() : "srtf";
+		
+		if (name.equals("srtf")) {
+			return new SrtfPolicy();
+		}
+		
+		if (name.equals("aging")) {
+			double agingRate = args.length > from + 1 ? Double.parseDouble(args[from + 1]) : 0.5;
+			int maxWaitQuanta = args.length > from + 2 ? Integer.parseInt(args[from + 2]) : 0;
+			return new AgingPolicy(agingRate, maxWaitQuanta);
+		}
+		
+		if (name.equals("rr")) {
+			double quantum = args.length > from + 1 ? Double.parseDouble(args[from + 1]) : 0;
+			return new RoundRobinPolicy(quantum);
+		}
+		
+		if (name.equals("mlfq")) {
+			double quantum = args.length > from + 1 ? Double.parseDouble(args[from + 1]) : 1;
+			int numOfLevels = args.length > from + 2 ? Integer.parseInt(args[from + 2]) : 3;
+			double boostInterval = args.length > from + 3 ? Double.parseDouble(args[from + 3]) : 0;
+			return new MlfqPolicy(quantum, numOfLevels, boostInterval);
+		}
+		
+		if (name.equals("stride")) {
+			double quantum = args.length > from + 1 ? Double.parseDouble(args[from + 1]) : 0;
+			return new StridePolicy(quantum);
+		}
+		
+		throw new Exception("Unknown scheduling policy: " + name);
+	}
+	
+	/**
+	 * open the trace of a simulation
+	 * @param fn filename of the trace
+	 * @param binary true for the binary format of BinaryTraceWriter, false for the text format of output.txt
+	 * @return the trace
+	 * @throws IOException
+	 */
+	public static TraceWriter trace(String fn, boolean binary) throws IOException {
+		return binary ? new BinaryTraceWriter(fn) : new TextTraceWriter(fn);
+	}
+	
+	/**
+	 * the optional arguments are -binary to write the binary trace output.bin instead of output.txt (see
+	 * TraceRenderer), then the scheduler to use: events (default) for the discrete event scheduler,
+	 * threads for the scheduler that hands every quantum to a CPU thread, or table for the discrete event
+	 * scheduler on a ProcessTable (srtf only, for very large input files), then the scheduling policy:
+	 * srtf (default); aging followed by the aging rate and the most quanta a process may wait; rr or
+	 * stride followed by the quantum (0 or none for 10 percent of the remaining execution time); or mlfq
+	 * followed by the quantum of the top level, the number of levels and the time between boosts.
+	 * The summary statistics of the run go to output.stats.json and output.stats.csv
+	 * @param args
+	 */
 	public static void main(String[] args) {
 		try {
-			int numOfElements = 0; //number of elements in the file
-			int numOfProc = 0; //number of processes
-			Process[] processes; //array of processes from file
-			Scheduler sch; //the scheduler object
+			boolean binary = args.length > 0 && args[0].equals("-binary"); //true for a binary trace
+			if (binary) {
+				args = Arrays.copyOfRange(args, 1, args.length);
+			}
 			
-			File inputFile = new File("input.txt");
-			Scanner sc = new Scanner(inputFile);
+			String engine = args.length > 0 ? args[0] : "events"; //which scheduler to use
+			String fn = binary ? "output.bin" : "output.txt"; //filename of the trace
+			TraceWriter trace = new StatsTraceWriter(trace(fn, binary), "output"); //the trace, and the statistics of it
+			SchedulingPolicy policy = policy(args, 1); //chooses the ready process that gets the CPU
+			WaitTimes waits; //waiting times of the processes
+			Scheduler sch; //the scheduler object
 			
-			//get the number of elements in the file & make sure there isn't missing data
-			while (sc.hasNextInt()) {
-				sc.nextInt();
-				numOfElements++;
+			if (engine.equals("events")) {
+				//processes from file, read as they arrive
+				EventScheduler esch = new EventScheduler(ProcessSource.open("input.txt"), trace, policy);
+				esch.run();
+				waits = esch.getWaitTimes();
 			}
-			
-			if (numOfElements % 2 != 0) {
-				sc.close();
-				throw new Exception("Number of elements in file is odd");
+			else if (engine.equals("threads")) {
+				sch = new Scheduler(ProcessSource.open("input.txt"), trace, policy);
+				sch.start();
+				sch.join();
+				waits = sch.getWaitTimes();
+			}
+			else if (engine.equals("table")) {
+				if (!(policy instanceof SrtfPolicy)) {
+					throw new Exception("The table scheduler only supports srtf!");
+				}
+				
+				TableScheduler tsch = new TableScheduler(new ProcessFile("input.txt"), trace);
+				tsch.run();
+				waits = tsch.getWaitTimes();
+			}
+			else {
+				throw new Exception("Unknown scheduler: " + engine);
 			}
 			
-			//reset the scanner to the beginning
-			sc.close(); 
-			sc = new Scanner(inputFile);
+			//the same waiting times as in the output file, so that runs of different policies can be compared
+			System.out.println(policy.getName() + " waiting times:");
 			
-			numOfProc = numOfElements / 2;
-			processes = new Process[numOfProc];
+			for (int i = 0; i < waits.size(); i++) {
+				System.out.println(String.format("Process %d: %.2f", waits.getProcId(i), waits.getWaitTime(i)));
+			}
 			
-			//get the processes from file & create object
-			for (int i = 0; sc.hasNextInt(); i++) {
-				int arrivalTime = sc.nextInt();
-				double execTime = sc.nextInt();
-				
-				if (arrivalTime < 1 || execTime < 0) {
-					sc.close();
-					throw new Exception("Arrival time is less than system start time or burst time is negative!");
+			//longest single wait for the CPU, to check the tail latency of the policy
+			int longest = -1;
+			for (int i = 0; i < waits.size(); i++) {
+				if (longest == -1 || waits.getMaxWait(i) > waits.getMaxWait(longest)) {
+					longest = i;
 				}
-				
-				processes[i] = new Process(String.valueOf(i), arrivalTime, execTime);
 			}
 			
-			sc.close();
-			Arrays.sort(processes, new ProcessSorter()); //sort processes based on arrival time
-			
-			sch = new Scheduler(processes, "output.txt");
-			sch.start();
-			sch.join();
+			if (longest != -1) {
+				System.out.println(String.format("%s: longest wait was Process %d: %.2f", 
+						policy.getName(), waits.getProcId(longest), waits.getMaxWait(longest)));
+			}
 			System.out.println("Done");
 		}
 		
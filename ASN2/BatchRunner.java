@@ -0,0 +1,156 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * simulates every workload file of a directory with the discrete event scheduler, in parallel on all
+ * cores. Every simulation has its own processes, policy and clock, so the runs share nothing; for each
+ * input it writes the trace (the same output as App), its statistics and a short summary to the output directory
+ * @author Ajevan
+ *
+ */
+public class BatchRunner {
+	
+	/**
+	 * simulate one workload file and write its trace and summary
+	 * @param input the workload file
+	 * @param outDir directory of the trace and summary
+	 * @param binary true for a binary trace, false for a text trace
+	 * @param args the command line arguments, to create a new policy for this run
+	 * @return number of processes simulated
+	 * @throws Exception
+	 */
+	public static int simulate(File input, File outDir, boolean binary, String[] args) throws Exception {
+		String name = input.getName();
+		int dot = name.lastIndexOf('.');
+		String base = dot > 0 ? name.substring(0, dot) : name; //filename without the extension
+		
+		ProcessSource processes = ProcessSource.open(input.getPath());
+		SchedulingPolicy policy = App.policy(args, 3); //policies keep state, so every run has its own
+		String trace = base + (binary ? ".trace.bin" : ".trace.txt"); //filename of the trace
+		StatsTraceWriter stats = new StatsTraceWriter(App.trace(new File(outDir, trace).getPath(), binary),
+				new File(outDir, base).getPath()); //the trace, and the statistics of it
+		EventScheduler sch = new EventScheduler(processes, stats, policy);
+		sch.simulate();
+		
+		WaitTimes waits = sch.getWaitTimes();
+		double totalWait = 0; //sum of the waiting times
+		int longest = -1; //process with the longest single wait for the CPU
+		
+		for (int i = 0; i < waits.size(); i++) {
+			totalWait += waits.getWaitTime(i);
+			
+			if (longest == -1 || waits.getMaxWait(i) > waits.getMaxWait(longest)) {
+				longest = i;
+			}
+		}
+		
+		BufferedWriter bw = new BufferedWriter(new FileWriter(new File(outDir, base + ".summary.txt")));
+		bw.write(String.format("Input: %s\n", name));
+		bw.write(String.format("Policy: %s\n", policy.getName()));
+		bw.write(String.format("Processes: %d\n", waits.size()));
+		bw.write(String.format("Finish time: %.2f\n", sch.getTime()));
+		
+		if (longest != -1) {
+			bw.write(String.format("Average waiting time: %.2f\n", totalWait / waits.size()));
+			bw.write(String.format("Longest wait: Process %d: %.2f\n", waits.getProcId(longest), waits.getMaxWait(longest)));
+			bw.write(String.format("Waiting time p50/p95/p99: %.2f / %.2f / %.2f\n", stats.getWaits().getPercentile(50),
+					stats.getWaits().getPercentile(95), stats.getWaits().getPercentile(99)));
+			bw.write(String.format("CPU utilization: %.2f%%\n", 100 * stats.getUtilization()));
+		}
+		bw.close();
+		
+		return waits.size();
+	}
+	
+	/**
+	 * the arguments are optionally -binary for binary traces, then the directory of workload files, the
+	 * output directory, then optionally the number of threads (default 0 for one per core) and the
+	 * scheduling policy, as for App
+	 * @param cmdArgs
+	 */
+	public static void main(String[] cmdArgs) {
+		
+		try {
+			final boolean binary = cmdArgs.length > 0 && cmdArgs[0].equals("-binary"); //true for binary traces
+			final String[] args = binary ? Arrays.copyOfRange(cmdArgs, 1, cmdArgs.length) : cmdArgs;
+			
+			if (args.length < 2) {
+				throw new Exception("Usage: BatchRunner [-binary] <input dir> <output dir> [threads] [policy...]");
+			}
+			
+			File inDir = new File(args[0]);
+			final File outDir = new File(args[1]);
+			int threads = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+			
+			if (threads < 1) {
+				threads = Runtime.getRuntime().availableProcessors();
+			}
+			
+			App.policy(args, 3); //fail before starting if the policy is invalid
+			
+			File[] inputs = inDir.listFiles();
+			if (inputs == null) {
+				throw new Exception("Input directory not found: " + inDir);
+			}
+			Arrays.sort(inputs);
+			
+			if (!outDir.isDirectory() && !outDir.mkdirs()) {
+				throw new Exception("Could not create output directory: " + outDir);
+			}
+			
+			ExecutorService pool = Executors.newFixedThreadPool(threads);
+			ArrayList<File> files = new ArrayList<File>(); //inputs in the order of the results
+			ArrayList<Future<Integer>> results = new ArrayList<Future<Integer>>(); //processes simulated per input
+			long start = System.nanoTime();
+			
+			for (int i = 0; i < inputs.length; i++) {
+				if (!inputs[i].isFile()) {
+					continue;
+				}
+				
+				final File input = inputs[i];
+				files.add(input);
+				results.add(pool.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						return simulate(input, outDir, binary, args);
+					}
+				}));
+			}
+			
+			long processes = 0; //number of processes simulated
+			int failed = 0; //number of inputs that could not be simulated
+			
+			for (int i = 0; i < results.size(); i++) {
+				try {
+					processes += results.get(i).get();
+				}
+				catch (ExecutionException ex) {
+					failed++;
+					System.out.println(files.get(i).getName() + ": " + ex.getCause().getMessage());
+				}
+			}
+			
+			double seconds = (System.nanoTime() - start) / 1e9;
+			pool.shutdown();
+			
+			System.out.println(String.format("Simulated %d workloads (%d processes, %d failed) on %d threads in %.2f s",
+					results.size() - failed, processes, failed, threads, seconds));
+			System.out.println(String.format("Throughput: %.1f workloads/s, %.0f processes/s",
+					(results.size() - failed) / seconds, processes / seconds));
+		}
+		
+		catch (Exception ex) {
+			System.out.println(ex.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,93 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * trace in a compact binary format, which is much faster to write than the text of output.txt and
+ * less than half its size. The file starts with MAGIC and VERSION, then holds one fixed size record
+ * per event: the time (double), the process id (int) and the state ordinal (byte). The waiting times
+ * at the end are records of kind WAIT, with the waiting time in place of the time. All numbers are
+ * little endian. TraceRenderer turns the file back into the text of output.txt
+ * @author Ajevan
+ *
+ */
+public class BinaryTraceWriter implements TraceWriter {
+	
+	public static final int MAGIC = 0x54324e41; //"AN2T" in little endian
+	public static final int VERSION = 1;
+	public static final int HEADER_SIZE = 8; //magic and version
+	public static final int RECORD_SIZE = 13; //time, process id and kind
+	public static final byte WAIT = (byte) Process.State.values().length; //kind of a waiting time record
+	public static final int BUFFER_SIZE = 1 << 20; //bytes collected before a write to the file
+	
+	private FileChannel channel;
+	private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+	
+	/**
+	 * binary trace constructor
+	 * @param fn filename of the output file
+	 * @throws IOException
+	 */
+	public BinaryTraceWriter(String fn) throws IOException {
+		channel = FileChannel.open(Paths.get(fn), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		buffer.putInt(MAGIC).putInt(VERSION);
+	}
+	
+	/**
+	 * add a record to the buffer, writing the buffer to the file first if it is full
+	 * @param value the time, or the waiting time of a WAIT record
+	 * @param id process id
+	 * @param kind state ordinal, or WAIT
+	 * @throws IOException
+	 */
+	private void record(double value, int id, byte kind) throws IOException {
+		if (buffer.remaining() < RECORD_SIZE) {
+			flush();
+		}
+		buffer.putDouble(value).putInt(id).put(kind);
+	}
+	
+	/**
+	 * write the buffer to the file and empty it
+	 * @throws IOException
+	 */
+	private void flush() throws IOException {
+		buffer.flip();
+		
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+	
+	@Override
+	public void arrived(double time, int id) {
+	}
+	
+	@Override
+	public void event(double time, int id, Process.State state) throws IOException {
+		record(time, id, (byte) state.ordinal());
+	}
+	
+	@Override
+	public void waitTimes(WaitTimes waits) throws IOException {
+		for (int i = 0; i < waits.size(); i++) {
+			record(waits.getWaitTime(i), waits.getProcId(i), WAIT);
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		}
+		finally {
+			channel.close();
+		}
+	}
+
+}
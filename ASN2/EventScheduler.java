@@ -0,0 +1,265 @@
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.PriorityQueue;
+
+/**
+ * single threaded, discrete event version of the scheduler. Instead of handing the CPU back and forth
+ * between threads and polling the clock, it keeps a priority queue of arrival and quantum end events
+ * and moves the clock straight to the next event. It writes the same output file as Scheduler
+ * @author Ajevan
+ *
+ */
+public class EventScheduler {
+	
+	public static final double TICK = 0.01; //amount by which the polling scheduler advances an idle clock
+	public static final long MAX_REPLAY_TICKS = 1 << 16; //longest idle gap that is replayed tick by tick
+	
+	private enum Type {
+		ARRIVAL, //a process reaches its arrival time
+		QUANTUM_END //the running process gives the CPU back
+	}
+	
+	/**
+	 * an event in the simulation; ordered by time, then arrivals before quantum ends, then creation order
+	 */
+	private static class Event implements Comparable<Event> {
+		private final double time;
+		private final Type type;
+		private final Process proc;
+		private final long seq;
+		
+		private Event(double time, Type type, Process proc, long seq) {
+			this.time = time;
+			this.type = type;
+			this.proc = proc;
+			this.seq = seq;
+		}
+		
+		@Override
+		public int compareTo(Event e) {
+			int c = Double.compare(time, e.time);
+			if (c == 0) {
+				c = type.compareTo(e.type);
+			}
+			if (c == 0) {
+				c = Long.compare(seq, e.seq);
+			}
+			return c;
+		}
+	}
+	
+	private TraceWriter trace; //where the state changes and waiting times go
+	
+	private ProcessSource waitq; //wait queue is where process waits until its arrival time
+	private WaitTimes waits = new WaitTimes(); //waiting times of the processes that arrived
+	private ArrayDeque<Process> arrived = new ArrayDeque<Process>(); //processes that arrived but haven't started yet
+	private SchedulingPolicy policy; //chooses the ready process that gets the CPU
+	private PriorityQueue<Event> events = new PriorityQueue<Event>(); //upcoming events
+	
+	private long eventSeq = 0; //number of events created
+	private double time = 0; //simulated clock of system
+	private Process running = null; //process that has the CPU; null if the CPU is idle
+	
+	/**
+	 * the scheduler constructor, with shortest remaining time first scheduling
+	 * @param processes array of processes sorted by arrival time
+	 * @param fn filename of the output file
+	 * @throws IOException
+	 */
+	public EventScheduler(Process[] processes, String fn) throws IOException {
+		this(processes, fn, new SrtfPolicy());
+	}
+	
+	/**
+	 * the scheduler constructor
+	 * @param processes array of processes sorted by arrival time
+	 * @param fn filename of the output file
+	 * @param policy chooses the ready process that gets the CPU
+	 * @throws IOException
+	 */
+	public EventScheduler(Process[] processes, String fn, SchedulingPolicy policy) throws IOException {
+		this(processes, new TextTraceWriter(fn), policy);
+	}
+	
+	/**
+	 * the scheduler constructor
+	 * @param processes array of processes sorted by arrival time
+	 * @param trace where the state changes and waiting times go, e.g. a text or binary file
+	 * @param policy chooses the ready process that gets the CPU
+	 */
+	public EventScheduler(Process[] processes, TraceWriter trace, SchedulingPolicy policy) {
+		this(ProcessSource.of(processes), trace, policy);
+	}
+	
+	/**
+	 * the scheduler constructor
+	 * @param processes the processes in order of arrival time; each one is only read when the previous one arrives
+	 * @param trace where the state changes and waiting times go, e.g. a text or binary file
+	 * @param policy chooses the ready process that gets the CPU
+	 */
+	public EventScheduler(ProcessSource processes, TraceWriter trace, SchedulingPolicy policy) {
+		this.waitq = processes;
+		this.policy = policy;
+		this.trace = trace;
+	}
+	
+	/**
+	 * return the current time in the simulation
+	 * @return time
+	 */
+	public double getTime() {
+		return this.time;
+	}
+	
+	/**
+	 * return the waiting times of the processes that arrived so far
+	 * @return waits
+	 */
+	public WaitTimes getWaitTimes() {
+		return this.waits;
+	}
+	
+	/**
+	 * add an event to the queue
+	 * @param time time of the event
+	 * @param type type of the event
+	 * @param proc process of the event
+	 */
+	private void schedule(double time, Type type, Process proc) {
+		events.add(new Event(time, type, proc, eventSeq++));
+	}
+	
+	/**
+	 * the time at which an idle CPU notices an arrival. The polling scheduler advances an idle clock by
+	 * adding TICK over and over, and the rounding of those additions shows up in the output file, so
+	 * short gaps are replayed the same way (one addition per tick is still far cheaper than a loop of
+	 * the polling scheduler). Gaps longer than MAX_REPLAY_TICKS are skipped in one step
+	 * @param time current time
+	 * @param arrival arrival time of the process
+	 * @return the first tick at or after the arrival
+	 */
+	static double idleUntil(double time, double arrival) {
+		if (time >= arrival) {
+			return time;
+		}
+		
+		long ticks = (long) Math.ceil((arrival - time) / TICK);
+		
+		if (ticks <= MAX_REPLAY_TICKS) {
+			double t = time;
+			
+			while (t < arrival) {
+				t += TICK;
+			}
+			return t;
+		}
+		
+		//correct the rounding of the division so that this is the first tick at or after the arrival
+		while (ticks > 0 && time + (ticks - 1) * TICK >= arrival) {
+			ticks--;
+		}
+		while (time + ticks * TICK < arrival) {
+			ticks++;
+		}
+		return time + ticks * TICK;
+	}
+	
+	/**
+	 * give the free CPU to a process: new arrivals first, otherwise the ready process chosen by the policy
+	 * @throws IOException
+	 */
+	private void dispatch() throws IOException {
+		Process p;
+		
+		if (!arrived.isEmpty()) {
+			p = arrived.poll();
+			policy.add(p, time);
+			trace.event(time, p.getProcId(), Process.State.STARTED);
+		}
+		else if (!policy.isEmpty()) {
+			p = policy.next(time);
+		}
+		else {
+			return; //nothing to run, wait for the next arrival
+		}
+		
+		running = p;
+		double end = p.runQuantum(time, trace, policy.quantum(p)); //time at which the process gives the CPU back
+		schedule(end, Type.QUANTUM_END, p);
+		
+		if (!p.isFinished()) {
+			policy.ran(p, end);
+		}
+	}
+	
+	/**
+	 * run the simulation until all processes are finished and write the waiting times
+	 */
+	public void run() {
+		
+		try {
+			simulate();
+		}
+		
+		catch(Exception ex) {
+			System.out.println(ex.getMessage());
+		}
+	}
+	
+	/**
+	 * run the simulation until all processes are finished and write the waiting times
+	 * @throws IOException if the output file can't be written
+	 */
+	public void simulate() throws IOException {
+		
+		try {
+			Process first = waitq.next();
+			if (first != null) {
+				schedule(first.getArrivalTime(), Type.ARRIVAL, first);
+			}
+			
+			while (!events.isEmpty()) {
+				Event e = events.poll();
+				
+				if (e.type == Type.ARRIVAL) {
+					arrived.add(e.proc);
+					waits.arrived(e.proc);
+					trace.arrived(e.time, e.proc.getProcId());
+					
+					//only the next arrival is queued, the rest of the wait queue stays sorted by arrival time
+					Process next = waitq.next();
+					if (next != null) {
+						schedule(next.getArrivalTime(), Type.ARRIVAL, next);
+					}
+					
+					//if the CPU is busy, the process starts when the current quantum ends
+					if (running != null) {
+						continue;
+					}
+					time = idleUntil(time, e.time);
+				}
+				
+				else {
+					time = e.time;
+					running = null;
+					
+					//a process that has finished execution leaves the policy
+					if (e.proc.isFinished()) {
+						policy.remove(e.proc);
+						waits.finished(e.proc);
+					}
+				}
+				
+				dispatch();
+			}
+			
+			trace.waitTimes(waits);
+		}
+		
+		finally {
+			trace.close();
+			waitq.close();
+		}
+	}
+
+}
@@ -0,0 +1,112 @@
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+
+/**
+ * multi-level feedback queue. A new process starts in the top level; every time it uses a whole
+ * quantum without finishing it drops one level, down to the bottom level. The ready process in the
+ * highest level gets the CPU, round-robin within a level, and the quantum doubles with every level
+ * down. Optionally, every boostInterval time units all processes go back to the top level so that
+ * long jobs in the bottom level are not starved
+ * @author Ajevan
+ *
+ */
+public class MlfqPolicy implements SchedulingPolicy {
+	
+	private final double quantum; //quantum of the top level
+	private final double boostInterval; //time between moves of all processes to the top level; 0 for none
+	
+	private LinkedHashSet<Process>[] levels; //ready processes of each level, next turn first; level 0 is the top
+	private HashMap<Process, Integer> levelOf = new HashMap<Process, Integer>(); //level of each ready process
+	private double lastBoost = 0; //time of the last move to the top level
+	
+	/**
+	 * multi-level feedback queue constructor
+	 * @param quantum quantum of the top level
+	 * @param numOfLevels number of levels
+	 * @param boostInterval time between moves of all processes to the top level; 0 for none
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public MlfqPolicy(double quantum, int numOfLevels, double boostInterval) {
+		if (quantum <= 0 || numOfLevels < 1 || numOfLevels > 30 || boostInterval < 0) {
+			throw new IllegalArgumentException("Quantum must be positive, levels between 1 and 30 and boost not negative!");
+		}
+		
+		this.quantum = quantum;
+		this.boostInterval = boostInterval;
+		this.levels = new LinkedHashSet[numOfLevels];
+		
+		for (int i = 0; i < numOfLevels; i++) {
+			levels[i] = new LinkedHashSet<Process>();
+		}
+	}
+	
+	@Override
+	public String getName() {
+		return String.format("MLFQ(q=%s, levels=%d, boost=%s)", quantum, levels.length, boostInterval);
+	}
+	
+	@Override
+	public void add(Process p, double time) {
+		levels[0].add(p);
+		levelOf.put(p, 0);
+	}
+	
+	@Override
+	public Process next(double time) {
+		for (int i = 0; i < levels.length; i++) {
+			if (!levels[i].isEmpty()) {
+				return levels[i].iterator().next();
+			}
+		}
+		return null;
+	}
+	
+	@Override
+	public double quantum(Process p) {
+		return quantum * (1 << levelOf.get(p));
+	}
+	
+	@Override
+	public void ran(Process p, double time) {
+		//the process used its whole quantum, otherwise it would have finished
+		int level = levelOf.get(p);
+		int lower = Math.min(level + 1, levels.length - 1);
+		
+		levels[level].remove(p);
+		levels[lower].add(p);
+		levelOf.put(p, lower);
+		
+		if (boostInterval > 0 && time - lastBoost >= boostInterval) {
+			boost();
+			lastBoost = time;
+		}
+	}
+	
+	/**
+	 * move all processes to the top level, keeping their order
+	 */
+	private void boost() {
+		for (int i = 1; i < levels.length; i++) {
+			for (Process p : levels[i]) {
+				levelOf.put(p, 0);
+			}
+			levels[0].addAll(levels[i]);
+			levels[i].clear();
+		}
+	}
+	
+	@Override
+	public void remove(Process p) {
+		Integer level = levelOf.remove(p);
+		
+		if (level != null) {
+			levels[level].remove(p);
+		}
+	}
+	
+	@Override
+	public boolean isEmpty() {
+		return levelOf.isEmpty();
+	}
+
+}
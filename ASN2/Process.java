@@ -1,9 +1,12 @@
+import java.io.IOException;
+
 /**
- * simulation of a process
+ * simulation of a process. This is only the state of the process (its process control block); the
+ * scheduler that gives it the CPU decides which thread runs its quanta
  * @author Ajevan
  *
  */
-public class Process extends Thread {
+public class Process {
 	
 	public enum State {
 		STARTED,
@@ -12,41 +15,39 @@ public class Process extends Thread {
 		FINISHED
 	}
 	
+	public static final double QUANTUM_SHARE = 0.1; //default quantum as a share of the remaining execution time
+	
 	private double lastTime; //the last time this process was executed
 	private double waitTime = 0; //the amount of time this process spent waiting
+	private double maxWait = 0; //the longest time this process waited for the CPU at once
 	
+	private int id;
 	private String name;
-	private Scheduler sch;
 	
 	private int arrivalTime;
 	private double execTime;
-	public static double time = 0; //simulated clock of system
 	
 	private boolean finished = false; //true if the process is finished
 	public State state; //the current state of the process
 	
+	private int heapInd = -1; //index of this process in the ready queue heap; -1 if not in the ready queue
+	private long readySeq = 0; //order in which this process entered the ready queue
+	
 	/**
 	 * process constructor
-	 * @param name
+	 * @param id
 	 * @param arrivalTime
 	 * @param exectime
 	 */
-	public Process(String name, int arrivalTime, double exectime) {
-		this.name = name;
+	public Process(int id, int arrivalTime, double exectime) {
+		this.id = id;
+		this.name = String.valueOf(id);
 		this.arrivalTime = arrivalTime;
 		this.lastTime = arrivalTime;
 		this.execTime = exectime;
 		this.waitTime = this.arrivalTime - 1;
 	}
 	
-	/**
-	 * pass the scheduler object to this process
-	 * @param sch the scheduler that is controlling all the processes
-	 */
-	public void setScheduler(Scheduler sch) {
-		this.sch = sch;
-	}
-	
 	/**
 	 * return the time this process spent waiting
 	 * @return waitTime
@@ -55,6 +56,22 @@ public class Process extends Thread {
 		return this.waitTime;
 	}
 	
+	/**
+	 * return the longest time this process waited for the CPU at once
+	 * @return maxWait
+	 */
+	public double getMaxWait() {
+		return this.maxWait;
+	}
+	
+	/**
+	 * return the last time this process was executed; its arrival time if it hasn't run yet
+	 * @return lastTime
+	 */
+	public double getLastTime() {
+		return this.lastTime;
+	}
+	
 	/**
 	 * return the arrival time of this process
 	 */
@@ -70,6 +87,14 @@ public class Process extends Thread {
 		return this.execTime;
 	}
 	
+	/**
+	 * get the process id, which is its index in the input file
+	 * @return id
+	 */
+	public int getProcId() {
+		return this.id;
+	}
+	
 	/**
 	 * get the process name
 	 * @return name
@@ -78,6 +103,38 @@ public class Process extends Thread {
 		return this.name;
 	}
 	
+	/**
+	 * return the index of this process in the ready queue heap
+	 * @return heapInd; -1 if not in the ready queue
+	 */
+	public int getHeapInd() {
+		return this.heapInd;
+	}
+	
+	/**
+	 * set the index of this process in the ready queue heap
+	 * @param heapInd new index
+	 */
+	public void setHeapInd(int heapInd) {
+		this.heapInd = heapInd;
+	}
+	
+	/**
+	 * return the order in which this process entered the ready queue; a lower number is an older process
+	 * @return readySeq
+	 */
+	public long getReadySeq() {
+		return this.readySeq;
+	}
+	
+	/**
+	 * set the order in which this process entered the ready queue
+	 * @param readySeq
+	 */
+	public void setReadySeq(long readySeq) {
+		this.readySeq = readySeq;
+	}
+	
 	/**
 	 * returns true if the process is finished
 	 * @return finished
@@ -86,39 +143,34 @@ public class Process extends Thread {
 		return finished;
 	}
 	
-	@SuppressWarnings("deprecation")
-	public void run() {
+	/**
+	 * run this process for one quantum, or until it finishes if that is sooner
+	 * @param now the time at which the process gets the CPU
+	 * @param trace trace of the simulation
+	 * @param quantum longest time the process may run, e.g. 10 percent of its remaining execution time
+	 * @return the time at which the process gives the CPU back
+	 * @throws IOException
+	 */
+	public double runQuantum(double now, TraceWriter trace, double quantum) throws IOException {
+		trace.event(now, id, State.RESUMED);
 		
-		try {
-			while (true) {
-				sch.getBufferedwriter().write(String.format("Time %.2f, Process %s, %s\n", time, name, State.RESUMED));
-				
-				waitTime += time - lastTime;
-				time += 0.1*execTime;
-				execTime -= 0.1*execTime;
-				lastTime = time;
-				
-				sch.getBufferedwriter().write(String.format("Time %.2f, Process %s, %s\n", time, name, State.PAUSED));
-				
-				//have a tolerance so that process doesn't run indefinitely
-				if (execTime <= 0.01) {
-					
-					finished = true;
-					sch.getBufferedwriter().write(String.format("Time %.2f, Process %s, %s\n", time, name, State.FINISHED));
-					sch.resume(); //return the CPU to the scheduler
-					break;
-				}
-				
-				sch.resume(); //return the CPU to the scheduler
-				this.suspend();
-			}
-		}
+		double slice = Math.min(quantum, execTime); //time this process actually uses the CPU
+		waitTime += now - lastTime;
+		maxWait = Math.max(maxWait, now - lastTime);
+		now += slice;
+		execTime -= slice;
+		lastTime = now;
+		
+		trace.event(now, id, State.PAUSED);
 		
-		catch(Exception ex) {
-			System.out.println("Something went wrong in the Process object run method: " + ex.getMessage());
+		//have a tolerance so that process doesn't run indefinitely
+		if (execTime <= 0.01) {
+			finished = true;
+			trace.event(now, id, State.FINISHED);
 		}
+		return now;
 	}
-
+	
 	public static void main(String[] args) {
 		// TODO Auto-generated method stub
 
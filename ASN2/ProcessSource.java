@@ -0,0 +1,64 @@
+import java.io.IOException;
+
+/**
+ * the processes of a simulation, handed to the scheduler one at a time in order of arrival time. A
+ * process only exists once the scheduler asks for it, so a simulation of a large file never holds
+ * more processes than have arrived and not finished
+ * @author Ajevan
+ *
+ */
+public abstract class ProcessSource {
+	
+	/**
+	 * return the next process in order of arrival time
+	 * @return the process; null if there are no more processes
+	 * @throws IOException
+	 */
+	public abstract Process next() throws IOException;
+	
+	/**
+	 * release the resources of the source, e.g. the process file
+	 * @throws IOException
+	 */
+	public void close() throws IOException {
+	}
+	
+	/**
+	 * source of the processes of an array
+	 * @param processes array of processes sorted by arrival time
+	 * @return the source
+	 */
+	public static ProcessSource of(final Process[] processes) {
+		return new ProcessSource() {
+			private int ind = 0; //index of the next process
+			
+			@Override
+			public Process next() {
+				return ind < processes.length ? processes[ind++] : null;
+			}
+		};
+	}
+	
+	/**
+	 * source of the processes of a process file, which holds an arrival time and a burst time per process
+	 * @param fn filename of the process file
+	 * @return the source
+	 * @throws Exception if the file is missing or invalid
+	 */
+	public static ProcessSource open(String fn) throws Exception {
+		final ProcessFile file = new ProcessFile(fn);
+		
+		return new ProcessSource() {
+			@Override
+			public Process next() throws IOException {
+				return file.next() ? new Process(file.getId(), file.getArrivalTime(), file.getBurstTime()) : null;
+			}
+			
+			@Override
+			public void close() throws IOException {
+				file.close();
+			}
+		};
+	}
+
+}
@@ -0,0 +1,150 @@
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * indexed min heap of the ready processes. By default the process at the top is the one with the
+ * shortest remaining execution time, and of processes with equal remaining time the one that entered
+ * the ready queue first. Every process knows its own position in the heap, so a process whose
+ * remaining time changed or that finished is moved or removed without searching for it
+ * @author Ajevan
+ *
+ */
+public class ReadyQueue {
+	
+	/**
+	 * shortest remaining execution time first, then the older process
+	 */
+	public static final Comparator<Process> SHORTEST_REMAINING = new Comparator<Process>() {
+		@Override
+		public int compare(Process p1, Process p2) {
+			int c = Double.compare(p1.getExecTime(), p2.getExecTime());
+			return c != 0 ? c : Long.compare(p1.getReadySeq(), p2.getReadySeq());
+		}
+	};
+	
+	private final Comparator<Process> order; //order of the processes in the heap
+	private Process[] heap = new Process[16]; //the heap; the children of index i are 2i+1 and 2i+2
+	private int size = 0; //number of processes in the heap
+	private long readySeq = 0; //number of processes that entered the ready queue
+	
+	/**
+	 * ready queue with the shortest remaining execution time at the top
+	 */
+	public ReadyQueue() {
+		this(SHORTEST_REMAINING);
+	}
+	
+	/**
+	 * ready queue with the given order
+	 * @param order the process that compares lowest is at the top
+	 */
+	public ReadyQueue(Comparator<Process> order) {
+		this.order = order;
+	}
+	
+	/**
+	 * return the number of processes in the ready queue
+	 * @return size
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * returns true if there are no processes in the ready queue
+	 * @return true if empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	/**
+	 * return the process at the top, without removing it
+	 * @return the process; null if the ready queue is empty
+	 */
+	public Process peek() {
+		return size == 0 ? null : heap[0];
+	}
+	
+	/**
+	 * add a process to the ready queue
+	 * @param p process that became ready
+	 */
+	public void add(Process p) {
+		if (size == heap.length) {
+			heap = Arrays.copyOf(heap, 2 * heap.length);
+		}
+		
+		p.setReadySeq(readySeq++);
+		heap[size] = p;
+		p.setHeapInd(size++);
+		siftUp(p.getHeapInd());
+	}
+	
+	/**
+	 * move the process to its new place after its key changed, e.g. after it ran for a quantum
+	 * @param p process in the ready queue
+	 */
+	public void update(Process p) {
+		int i = p.getHeapInd();
+		siftUp(i);
+		siftDown(p.getHeapInd());
+	}
+	
+	/**
+	 * remove a process from the ready queue, e.g. because it finished
+	 * @param p process in the ready queue
+	 */
+	public void remove(Process p) {
+		int i = p.getHeapInd();
+		Process last = heap[--size];
+		heap[size] = null;
+		p.setHeapInd(-1);
+		
+		//the last process fills the hole, then moves to its place
+		if (i < size) {
+			heap[i] = last;
+			last.setHeapInd(i);
+			siftUp(i);
+			siftDown(last.getHeapInd());
+		}
+	}
+	
+	private void siftUp(int i) {
+		Process p = heap[i];
+		
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+			
+			if (order.compare(p, heap[parent]) >= 0) {
+				break;
+			}
+			heap[i] = heap[parent];
+			heap[i].setHeapInd(i);
+			i = parent;
+		}
+		heap[i] = p;
+		p.setHeapInd(i);
+	}
+	
+	private void siftDown(int i) {
+		Process p = heap[i];
+		
+		while (2*i + 1 < size) {
+			int child = 2*i + 1;
+			
+			if (child + 1 < size && order.compare(heap[child + 1], heap[child]) < 0) {
+				child++;
+			}
+			if (order.compare(heap[child], p) >= 0) {
+				break;
+			}
+			heap[i] = heap[child];
+			heap[i].setHeapInd(i);
+			i = child;
+		}
+		heap[i] = p;
+		p.setHeapInd(i);
+	}
+
+}
@@ -0,0 +1,64 @@
+import java.util.LinkedHashSet;
+
+/**
+ * round-robin: the ready processes take turns in the order they became ready, and a process that used
+ * the CPU goes to the back of the line. The quantum is either fixed, or 10 percent of the remaining
+ * execution time of the process like the default scheduler
+ * @author Ajevan
+ *
+ */
+public class RoundRobinPolicy implements SchedulingPolicy {
+	
+	private final double quantum; //fixed quantum; 0 for 10 percent of the remaining execution time
+	
+	private LinkedHashSet<Process> readyq = new LinkedHashSet<Process>(); //ready processes, next turn first
+	
+	/**
+	 * round-robin constructor
+	 * @param quantum fixed quantum; 0 for 10 percent of the remaining execution time
+	 */
+	public RoundRobinPolicy(double quantum) {
+		if (quantum < 0) {
+			throw new IllegalArgumentException("Quantum must not be negative!");
+		}
+		this.quantum = quantum;
+	}
+	
+	@Override
+	public String getName() {
+		return quantum > 0 ? String.format("RR(q=%s)", quantum) : "RR(q=10%)";
+	}
+	
+	@Override
+	public void add(Process p, double time) {
+		readyq.add(p);
+	}
+	
+	@Override
+	public Process next(double time) {
+		return readyq.isEmpty() ? null : readyq.iterator().next();
+	}
+	
+	@Override
+	public double quantum(Process p) {
+		return quantum > 0 ? quantum : Process.QUANTUM_SHARE * p.getExecTime();
+	}
+	
+	@Override
+	public void ran(Process p, double time) {
+		//move the process to the back of the line
+		readyq.remove(p);
+		readyq.add(p);
+	}
+	
+	@Override
+	public void remove(Process p) {
+		readyq.remove(p);
+	}
+	
+	@Override
+	public boolean isEmpty() {
+		return readyq.isEmpty();
+	}
+
+}
@@ -1,132 +1,191 @@
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * simulation of a process scheduler that is responsible for scheduling a given list of processes.
- * The scheduler is running on a machine with one CPU. The scheduling policy is a type of non-preemptive round-robin
- * scheduling
+ * The scheduler is running on a machine with one CPU. The scheduling policy decides which ready process runs next
+ * and for how long; by default the shortest remaining time first with a quantum of 10 percent of the remaining time.
+ * The CPU is a single worker thread: every quantum is handed to it as a task and the scheduler waits for the result,
+ * so processes don't need a thread of their own
  * @author Ajevan
  *
  */
 public class Scheduler extends Thread{
 	
-	private FileWriter filewriter;
-	private BufferedWriter bufferedwriter;
+	private TraceWriter trace; //where the state changes and waiting times go
 	
-	private Process[] waitq; //wait queue is where process waits until its arrival time
-	private Process[] readyq = new Process[0]; //ready queue is where process stays until end of execution
+	private ProcessSource waitq; //wait queue is where process waits until its arrival time
+	private Process nextArrival; //the process in the wait queue that arrives first
+	private WaitTimes waits = new WaitTimes(); //waiting times of the processes that arrived
+	private SchedulingPolicy policy; //ready queue is where process stays until end of execution; the policy chooses from it
 	
-	private int waitInd = 0; //waitq index
-	private int readyInd = -1; //readyq index
+	private double time = 0; //simulated clock of system
+	private ExecutorService cpu = Executors.newSingleThreadExecutor(); //the thread that runs the quanta of the processes
 	
 	private boolean isProcessInWaitq = true; //true if there are processes in the wait queue
 	private boolean allProcFinished = false; //true if all processes are finished
 	
 	/**
-	 * the scheduler constructor
+	 * the scheduler constructor, with shortest remaining time first scheduling
 	 * @param processes array of processes
 	 * @param fn filename of the output file
 	 * @throws IOException
 	 */
 	public Scheduler(Process[] processes, String fn) throws IOException {
+		this(processes, fn, new SrtfPolicy());
+	}
+	
+	/**
+	 * the scheduler constructor
+	 * @param processes array of processes
+	 * @param fn filename of the output file
+	 * @param policy chooses the ready process that gets the CPU
+	 * @throws IOException
+	 */
+	public Scheduler(Process[] processes, String fn, SchedulingPolicy policy) throws IOException {
+		this(processes, new TextTraceWriter(fn), policy);
+	}
+	
+	/**
+	 * the scheduler constructor
+	 * @param processes array of processes
+	 * @param trace where the state changes and waiting times go, e.g. a text or binary file
+	 * @param policy chooses the ready process that gets the CPU
+	 */
+	public Scheduler(Process[] processes, TraceWriter trace, SchedulingPolicy policy) {
+		this(ProcessSource.of(processes), trace, policy);
+	}
+	
+	/**
+	 * the scheduler constructor
+	 * @param processes the processes in order of arrival time; each one is only read when the previous one arrives
+	 * @param trace where the state changes and waiting times go, e.g. a text or binary file
+	 * @param policy chooses the ready process that gets the CPU
+	 */
+	public Scheduler(ProcessSource processes, TraceWriter trace, SchedulingPolicy policy) {
 		this.waitq = processes;
-		filewriter = new FileWriter(fn);
-		bufferedwriter = new BufferedWriter(filewriter);
+		this.policy = policy;
+		this.trace = trace;
+	}
+	
+	/**
+	 * return the waiting times of the processes that arrived so far
+	 * @return waits
+	 */
+	public WaitTimes getWaitTimes() {
+		return this.waits;
+	}
+	
+	/**
+	 * return the trace that the processes write their state changes to
+	 * @return trace
+	 */
+	public TraceWriter getTrace() {
+		return this.trace;
+	}
+	
+	/**
+	 * return the current time in the simulation
+	 * @return time
+	 */
+	public double getTime() {
+		return this.time;
 	}
 	
 	/**
-	 * return the BufferedWriter object used to write to the output file
-	 * @return bufferedwriter
+	 * return the policy that chooses the ready process that gets the CPU
+	 * @return policy
 	 */
-	public BufferedWriter getBufferedwriter() {
-		return this.bufferedwriter;
+	public SchedulingPolicy getPolicy() {
+		return this.policy;
 	}
 	
 	/**
-	 * return the index of the process with the shortest remaining execution time that is ready
-	 * @return index in ready queue
+	 * give the CPU to a process for one quantum and wait until it gives the CPU back
+	 * @param p the process that gets the CPU
+	 * @return the time at which the process gave the CPU back
+	 * @throws Exception if the quantum could not run
 	 */
-	private int sjf() {
-		int ind = 0; //index in readyq of the process with the shortest remaining execution time
+	private double dispatch(final Process p) throws Exception {
+		final double now = time;
+		final double quantum = policy.quantum(p);
 		
-		for (int i = 0; i < readyq.length; i++) {
-			if (readyq[i].getExecTime() < readyq[ind].getExecTime()) {
-				ind = i;
+		return cpu.submit(new Callable<Double>() {
+			@Override
+			public Double call() throws Exception {
+				return p.runQuantum(now, trace, quantum);
 			}
-		}
-		return ind;
+		}).get();
 	}
 	
-	@SuppressWarnings("deprecation")
 	public void run() {
 		
 		try {
+			nextArrival = waitq.next();
+			isProcessInWaitq = nextArrival != null;
+			
 			while (!allProcFinished) {
+				Process p = null; //the process that used the CPU in this iteration
 				
 				//if there are processes waiting & we have reached the arrival time of one of them
-				if (isProcessInWaitq && Process.time >= waitq[waitInd].getArrivalTime()) {
+				if (isProcessInWaitq && time >= nextArrival.getArrivalTime()) {
 					
 					//add process from wait queue to ready queue
-					ArrayList<Process> temparr = new ArrayList<Process>(Arrays.asList(readyq));
-					temparr.add(waitq[waitInd]);
-					readyq = temparr.toArray(new Process[temparr.size()]);
+					p = nextArrival;
+					policy.add(p, time);
+					waits.arrived(p);
+					trace.arrived(p.getArrivalTime(), p.getProcId());
 					
-					waitInd++;
+					nextArrival = waitq.next();
 					
-					//if index outside waitq, then no more waiting processes
-					if (waitInd > waitq.length - 1) {
+					//if there is no next arrival, then no more waiting processes
+					if (nextArrival == null) {
 						isProcessInWaitq = false;
 					}
 					
-					readyInd = readyq.length - 1; //the index of the newest process in the ready queue
-					
-					//ONLY when writing to output, format time to 2 decimal places; in reality time is of type double
-					bufferedwriter.write(String.format("Time %.2f, Process %s, %s\n", 
-							Process.time, readyq[readyInd].getProcName(), Process.State.STARTED));
-					
-					readyq[readyInd].setScheduler(this);
-					readyq[readyInd].start();
-					this.suspend(); //scheduler stops using CPU while process is using CPU
+					trace.event(time, p.getProcId(), Process.State.STARTED);
+					time = dispatch(p); //scheduler stops using CPU while process is using CPU
 				}
 				
 				//processes that are just being resumed
-				else if (readyq.length > 0){
+				else if (!policy.isEmpty()){
 					
-					readyq[sjf()].resume(); //choose process with the shortest remaining execution time
-					this.suspend(); //scheduler stops using CPU while process is using CPU
+					p = policy.next(time); //choose process with the policy, by default the shortest remaining execution time
+					time = dispatch(p); //scheduler stops using CPU while process is using CPU
 				}
 				
 				else {
-					Process.time += 0.01;
+					time += 0.01;
 				}
 				
-				//remove process in readyq that has finished execution
-				if (readyq.length > 0 && readyq[sjf()].isFinished()) {
-					ArrayList<Process> temparr = new ArrayList<Process>(Arrays.asList(readyq));
-					temparr.remove(sjf());
-					readyq = temparr.toArray(new Process[temparr.size()]);
+				//remove process in readyq that has finished execution, otherwise move it to its new place
+				if (p != null && p.isFinished()) {
+					policy.remove(p);
+					waits.finished(p);
+				}
+				else if (p != null) {
+					policy.ran(p, time);
 				}
 				
-				if (readyq.length == 0 && !isProcessInWaitq) {
+				if (policy.isEmpty() && !isProcessInWaitq) {
 					allProcFinished = true;
 				}
 			}
 			
-			bufferedwriter.write("-------------------------------------\nWaiting Times:\n");
-			
-			for (int i = 0; i < waitq.length; i++) {
-				bufferedwriter.write(String.format("Process %s: %.2f\n", waitq[i].getProcName(), waitq[i].getWaitTime()));
-			}
-			
-			bufferedwriter.close();
+			trace.waitTimes(waits);
+			trace.close();
+			waitq.close();
 		}
 		
 		catch(Exception ex) {
 			System.out.println(ex.getMessage());
 		}
+		
+		finally {
+			cpu.shutdown();
+		}
 	}
 
 	public static void main(String[] args) {
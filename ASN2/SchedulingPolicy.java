@@ -0,0 +1,56 @@
+/**
+ * policy that decides which ready process gets the CPU next and for how long. The scheduler tells the
+ * policy when a process becomes ready, when it used the CPU and when it finished
+ * @author Ajevan
+ *
+ */
+public interface SchedulingPolicy {
+	
+	/**
+	 * return the name of the policy
+	 * @return name
+	 */
+	String getName();
+	
+	/**
+	 * a process became ready
+	 * @param p the process
+	 * @param time current time
+	 */
+	void add(Process p, double time);
+	
+	/**
+	 * choose the ready process that gets the CPU next. The process stays in the policy
+	 * @param time current time
+	 * @return the process; null if there are no ready processes
+	 */
+	Process next(double time);
+	
+	/**
+	 * return how long the process runs once it gets the CPU. A process never runs longer than its
+	 * remaining execution time, so a longer quantum just lets it finish
+	 * @param p the process that gets the CPU
+	 * @return length of the quantum
+	 */
+	double quantum(Process p);
+	
+	/**
+	 * a process used the CPU for a quantum and is still ready
+	 * @param p the process
+	 * @param time time at which it gave the CPU back
+	 */
+	void ran(Process p, double time);
+	
+	/**
+	 * a process finished and leaves the policy
+	 * @param p the process
+	 */
+	void remove(Process p);
+	
+	/**
+	 * returns true if there are no ready processes
+	 * @return true if empty
+	 */
+	boolean isEmpty();
+
+}
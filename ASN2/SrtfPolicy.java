@@ -0,0 +1,46 @@
+/**
+ * shortest remaining time first: the ready process with the shortest remaining execution time gets
+ * the CPU, and of processes with equal remaining time the older one
+ * @author Ajevan
+ *
+ */
+public class SrtfPolicy implements SchedulingPolicy {
+	
+	private ReadyQueue readyq = new ReadyQueue(); //ready processes, shortest remaining time at the top
+	
+	@Override
+	public String getName() {
+		return "SRTF";
+	}
+	
+	@Override
+	public void add(Process p, double time) {
+		readyq.add(p);
+	}
+	
+	@Override
+	public Process next(double time) {
+		return readyq.peek();
+	}
+	
+	@Override
+	public double quantum(Process p) {
+		return Process.QUANTUM_SHARE * p.getExecTime();
+	}
+	
+	@Override
+	public void ran(Process p, double time) {
+		readyq.update(p); //its remaining execution time went down
+	}
+	
+	@Override
+	public void remove(Process p) {
+		readyq.remove(p);
+	}
+	
+	@Override
+	public boolean isEmpty() {
+		return readyq.isEmpty();
+	}
+
+}
@@ -0,0 +1,252 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * trace that passes everything on to another trace and meanwhile collects the summary statistics of
+ * the simulation: turnaround and response times, CPU utilization, throughput, context switches and the
+ * percentiles of the waiting times. When it is closed it writes them as JSON (base.stats.json) and as
+ * CSV, a header line and a line of values (base.stats.csv). The simulation runs on one CPU
+ * @author Ajevan
+ *
+ */
+public class StatsTraceWriter implements TraceWriter {
+	
+	public static final double[] PERCENTILES = {50, 95, 99};
+	
+	private TraceWriter trace; //the trace everything is passed on to
+	private String base; //filename of the statistics, without .stats.json or .stats.csv
+	
+	private int[] arrival = new int[16]; //arrival time of each process, by id
+	private int started = -1; //process that was started and hasn't run yet; -1 if none
+	private int running = -1; //process that has the CPU or had it last; -1 before the first quantum
+	private double resumedAt; //time at which the running process got the CPU
+	
+	private long processes = 0; //number of processes that arrived
+	private long finished = 0; //number of processes that finished
+	private double firstArrival = -1; //arrival time of the first process
+	private double lastTime = 0; //time of the last event
+	private double busyTime = 0; //time the CPU ran a process
+	private long quanta = 0; //number of times a process got the CPU
+	private long contextSwitches = 0; //number of times the CPU went to another process than the one before
+	
+	private Histogram waits = new Histogram(); //waiting times
+	private Histogram responses = new Histogram(); //first RESUMED minus arrival
+	private Histogram turnarounds = new Histogram(); //FINISHED minus arrival
+	
+	/**
+	 * statistics trace constructor
+	 * @param trace the trace everything is passed on to
+	 * @param base filename of the statistics, e.g. output for output.stats.json and output.stats.csv
+	 */
+	public StatsTraceWriter(TraceWriter trace, String base) {
+		this.trace = trace;
+		this.base = base;
+	}
+	
+	@Override
+	public void arrived(double time, int id) throws IOException {
+		if (id >= arrival.length) {
+			arrival = Arrays.copyOf(arrival, Math.max(id + 1, 2 * arrival.length));
+		}
+		arrival[id] = (int) time;
+		
+		if (processes++ == 0) {
+			firstArrival = time;
+		}
+		trace.arrived(time, id);
+	}
+	
+	@Override
+	public void event(double time, int id, Process.State state) throws IOException {
+		lastTime = Math.max(lastTime, time);
+		
+		if (state == Process.State.STARTED) {
+			started = id;
+		}
+		
+		else if (state == Process.State.RESUMED) {
+			if (id == started) {
+				responses.record(time - arrival[id]);
+				started = -1;
+			}
+			if (running != -1 && running != id) {
+				contextSwitches++;
+			}
+			running = id;
+			resumedAt = time;
+			quanta++;
+		}
+		
+		else if (state == Process.State.PAUSED) {
+			busyTime += time - resumedAt;
+		}
+		
+		else {
+			turnarounds.record(time - arrival[id]);
+			finished++;
+		}
+		trace.event(time, id, state);
+	}
+	
+	@Override
+	public void waitTimes(WaitTimes waits) throws IOException {
+		for (int i = 0; i < waits.size(); i++) {
+			this.waits.record(waits.getWaitTime(i));
+		}
+		trace.waitTimes(waits);
+	}
+	
+	@Override
+	public void close() throws IOException {
+		try {
+			trace.close();
+		}
+		finally {
+			write();
+		}
+	}
+	
+	/**
+	 * return the time from the first arrival to the last event
+	 * @return span; 0 if no process arrived
+	 */
+	public double getSpan() {
+		return firstArrival < 0 ? 0 : lastTime - firstArrival;
+	}
+	
+	/**
+	 * return the share of the span in which the CPU ran a process
+	 * @return utilization between 0 and 1
+	 */
+	public double getUtilization() {
+		return getSpan() > 0 ? busyTime / getSpan() : 0;
+	}
+	
+	/**
+	 * return the number of processes that finished per unit of simulated time
+	 * @return throughput
+	 */
+	public double getThroughput() {
+		return getSpan() > 0 ? finished / getSpan() : 0;
+	}
+	
+	/**
+	 * return the histogram of the waiting times, once the waiting times are written
+	 * @return waits
+	 */
+	public Histogram getWaits() {
+		return this.waits;
+	}
+	
+	/**
+	 * return the histogram of the response times
+	 * @return responses
+	 */
+	public Histogram getResponses() {
+		return this.responses;
+	}
+	
+	/**
+	 * return the histogram of the turnaround times
+	 * @return turnarounds
+	 */
+	public Histogram getTurnarounds() {
+		return this.turnarounds;
+	}
+	
+	/**
+	 * return the number of times the CPU went to another process than the one before
+	 * @return contextSwitches
+	 */
+	public long getContextSwitches() {
+		return this.contextSwitches;
+	}
+	
+	/**
+	 * the name and value of every statistic, in the order of the output
+	 * @return pairs of name and value
+	 */
+	private String[][] stats() {
+		String[][] general = {
+				{"processes", Long.toString(processes)},
+				{"finished", Long.toString(finished)},
+				{"startTime", num(Math.max(0, firstArrival))},
+				{"finishTime", num(lastTime)},
+				{"busyTime", num(busyTime)},
+				{"utilization", String.format(Locale.ROOT, "%.4f", getUtilization())},
+				{"throughput", String.format(Locale.ROOT, "%.6f", getThroughput())},
+				{"quanta", Long.toString(quanta)},
+				{"contextSwitches", Long.toString(contextSwitches)}
+		};
+		String[] names = {"waitTime", "responseTime", "turnaroundTime"};
+		Histogram[] histograms = {waits, responses, turnarounds};
+		String[][] all = Arrays.copyOf(general, general.length + names.length * (PERCENTILES.length + 2));
+		int n = general.length;
+		
+		for (int i = 0; i < names.length; i++) {
+			all[n++] = new String[] {names[i] + ".mean", num(histograms[i].getMean())};
+			
+			for (int j = 0; j < PERCENTILES.length; j++) {
+				all[n++] = new String[] {names[i] + ".p" + (int) PERCENTILES[j], num(histograms[i].getPercentile(PERCENTILES[j]))};
+			}
+			all[n++] = new String[] {names[i] + ".max", num(histograms[i].getMax())};
+		}
+		return all;
+	}
+	
+	/**
+	 * format a time with 2 decimal places like the output file, whatever the default locale
+	 * @param v the time
+	 * @return the text
+	 */
+	private static String num(double v) {
+		return String.format(Locale.ROOT, "%.2f", v);
+	}
+	
+	/**
+	 * write the statistics to base.stats.json and base.stats.csv
+	 * @throws IOException
+	 */
+	private void write() throws IOException {
+		String[][] stats = stats();
+		
+		BufferedWriter json = new BufferedWriter(new FileWriter(base + ".stats.json"));
+		json.write("{\n");
+		
+		for (int i = 0; i < stats.length; i++) {
+			String[] key = stats[i][0].split("\\.");
+			
+			//the statistics of a histogram are an object in the JSON
+			if (key.length == 2) {
+				boolean first = i == 0 || !stats[i - 1][0].startsWith(key[0] + ".");
+				boolean last = i == stats.length - 1 || !stats[i + 1][0].startsWith(key[0] + ".");
+				
+				json.write(first ? "  \"" + key[0] + "\": {" : " ");
+				json.write("\"" + key[1] + "\": " + stats[i][1]);
+				json.write(last ? (i == stats.length - 1 ? "}\n" : "},\n") : ",");
+			}
+			else {
+				json.write("  \"" + key[0] + "\": " + stats[i][1] + (i == stats.length - 1 ? "\n" : ",\n"));
+			}
+		}
+		json.write("}\n");
+		json.close();
+		
+		BufferedWriter csv = new BufferedWriter(new FileWriter(base + ".stats.csv"));
+		
+		for (int i = 0; i < stats.length; i++) {
+			csv.write((i > 0 ? "," : "") + stats[i][0]);
+		}
+		csv.write("\n");
+		
+		for (int i = 0; i < stats.length; i++) {
+			csv.write((i > 0 ? "," : "") + stats[i][1]);
+		}
+		csv.write("\n");
+		csv.close();
+	}
+
+}
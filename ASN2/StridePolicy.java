@@ -0,0 +1,88 @@
+import java.util.Comparator;
+import java.util.HashMap;
+
+/**
+ * stride scheduling: every process has a pass that goes up by the CPU time it used divided by its
+ * tickets, and the ready process with the lowest pass gets the CPU. The input file gives no
+ * priorities, so every process holds the same number of tickets and the CPU time is shared evenly;
+ * a process that becomes ready starts at the lowest pass of the ready processes, so it can neither
+ * take over the CPU nor be starved for the time it was not ready
+ * @author Ajevan
+ *
+ */
+public class StridePolicy implements SchedulingPolicy {
+	
+	private final double quantum; //fixed quantum; 0 for 10 percent of the remaining execution time
+	
+	private HashMap<Process, Double> passBase = new HashMap<Process, Double>(); //pass of each ready process plus
+																				 //its remaining execution time
+	private ReadyQueue readyq; //ready processes, lowest pass at the top
+	
+	/**
+	 * stride scheduling constructor
+	 * @param quantum fixed quantum; 0 for 10 percent of the remaining execution time
+	 */
+	public StridePolicy(double quantum) {
+		if (quantum < 0) {
+			throw new IllegalArgumentException("Quantum must not be negative!");
+		}
+		
+		this.quantum = quantum;
+		this.readyq = new ReadyQueue(new Comparator<Process>() {
+			@Override
+			public int compare(Process p1, Process p2) {
+				int c = Double.compare(pass(p1), pass(p2));
+				return c != 0 ? c : Long.compare(p1.getReadySeq(), p2.getReadySeq());
+			}
+		});
+	}
+	
+	/**
+	 * return the pass of a ready process. With equal tickets, the pass goes up by exactly the CPU time
+	 * used, which is how much the remaining execution time went down
+	 * @param p the process
+	 * @return pass
+	 */
+	private double pass(Process p) {
+		return passBase.get(p) - p.getExecTime();
+	}
+	
+	@Override
+	public String getName() {
+		return quantum > 0 ? String.format("STRIDE(q=%s)", quantum) : "STRIDE(q=10%)";
+	}
+	
+	@Override
+	public void add(Process p, double time) {
+		double pass = readyq.isEmpty() ? 0 : pass(readyq.peek());
+		passBase.put(p, pass + p.getExecTime());
+		readyq.add(p);
+	}
+	
+	@Override
+	public Process next(double time) {
+		return readyq.peek();
+	}
+	
+	@Override
+	public double quantum(Process p) {
+		return quantum > 0 ? quantum : Process.QUANTUM_SHARE * p.getExecTime();
+	}
+	
+	@Override
+	public void ran(Process p, double time) {
+		readyq.update(p); //its pass went up
+	}
+	
+	@Override
+	public void remove(Process p) {
+		readyq.remove(p);
+		passBase.remove(p);
+	}
+	
+	@Override
+	public boolean isEmpty() {
+		return readyq.isEmpty();
+	}
+
+}
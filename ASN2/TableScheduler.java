@@ -0,0 +1,244 @@
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * discrete event scheduler for simulations too large for one object per process. It runs on the rows
+ * of a ProcessTable, reading the processes from the process file as they arrive, and gives the same
+ * output as EventScheduler and Scheduler with shortest remaining time first scheduling. The only events
+ * are the next arrival and the end of the current quantum, so there is no event queue; the ready queue
+ * is a min heap of process ids
+ * @author Ajevan
+ *
+ */
+public class TableScheduler {
+	
+	private TraceWriter trace; //where the state changes and waiting times go
+	
+	private ProcessFile waitq; //wait queue is where process waits until its arrival time
+	private ProcessTable table; //the processes that arrived
+	
+	private int[] arrived = new int[16]; //processes that arrived but haven't started yet, as a circular queue
+	private int arrivedHead = 0; //index of the oldest process in arrived
+	private int arrivedCount = 0; //number of processes in arrived
+	
+	private int[] heap = new int[16]; //ready queue; the children of index i are 2i+1 and 2i+2
+	private int heapSize = 0; //number of processes in the ready queue
+	
+	private double time = 0; //simulated clock of system
+	private boolean running = false; //true if a process has the CPU
+	private double quantumEnd; //time at which the running process gives the CPU back
+	
+	/**
+	 * the scheduler constructor
+	 * @param processes the process file; its processes are read in order of arrival time
+	 * @param trace where the state changes and waiting times go, e.g. a text or binary file
+	 */
+	public TableScheduler(ProcessFile processes, TraceWriter trace) {
+		this.waitq = processes;
+		this.trace = trace;
+		this.table = new ProcessTable((int) processes.getCount(), processes.isSorted());
+	}
+	
+	/**
+	 * return the current time in the simulation
+	 * @return time
+	 */
+	public double getTime() {
+		return this.time;
+	}
+	
+	/**
+	 * return the waiting times of the processes that arrived so far
+	 * @return waits
+	 */
+	public WaitTimes getWaitTimes() {
+		return table.getWaitTimes();
+	}
+	
+	/**
+	 * return the table of the processes that arrived so far
+	 * @return table
+	 */
+	public ProcessTable getTable() {
+		return this.table;
+	}
+	
+	/**
+	 * the order of the ready queue: shortest remaining execution time first, then the process that
+	 * arrived first, which is the process that entered the ready queue first like in ReadyQueue
+	 * @param a id of a process
+	 * @param b id of another process
+	 * @return true if process a comes before process b
+	 */
+	private boolean before(int a, int b) {
+		int c = Double.compare(table.getExecTime(a), table.getExecTime(b));
+		if (c == 0) {
+			c = Integer.compare(table.getArrivalTime(a), table.getArrivalTime(b));
+		}
+		return c != 0 ? c < 0 : a < b;
+	}
+	
+	/**
+	 * add a process to the ready queue
+	 * @param id
+	 */
+	private void heapAdd(int id) {
+		if (heapSize == heap.length) {
+			heap = Arrays.copyOf(heap, 2 * heap.length);
+		}
+		
+		int i = heapSize++;
+		while (i > 0 && before(id, heap[(i - 1) / 2])) {
+			heap[i] = heap[(i - 1) / 2];
+			i = (i - 1) / 2;
+		}
+		heap[i] = id;
+	}
+	
+	/**
+	 * move the process at the top to its place, e.g. after its remaining time went down
+	 */
+	private void siftDownTop() {
+		int id = heap[0];
+		int i = 0;
+		
+		while (2*i + 1 < heapSize) {
+			int child = 2*i + 1;
+			
+			if (child + 1 < heapSize && before(heap[child + 1], heap[child])) {
+				child++;
+			}
+			if (!before(heap[child], id)) {
+				break;
+			}
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = id;
+	}
+	
+	/**
+	 * remove the process at the top of the ready queue
+	 */
+	private void heapPoll() {
+		heap[0] = heap[--heapSize];
+		
+		if (heapSize > 0) {
+			siftDownTop();
+		}
+	}
+	
+	/**
+	 * add a process that arrived to the end of the arrived queue
+	 * @param id
+	 */
+	private void arrive(int id) {
+		if (arrivedCount == arrived.length) {
+			int[] larger = new int[2 * arrived.length];
+			
+			for (int i = 0; i < arrivedCount; i++) {
+				larger[i] = arrived[(arrivedHead + i) % arrived.length];
+			}
+			arrived = larger;
+			arrivedHead = 0;
+		}
+		arrived[(arrivedHead + arrivedCount++) % arrived.length] = id;
+	}
+	
+	/**
+	 * give the free CPU to a process: new arrivals first, otherwise the ready process with the shortest
+	 * remaining execution time. The ready queue is updated as soon as the quantum is run, which gives the
+	 * same choices as EventScheduler since nothing is chosen until the quantum ends
+	 * @throws IOException
+	 */
+	private void dispatch() throws IOException {
+		int id;
+		
+		if (arrivedCount > 0) {
+			id = arrived[arrivedHead];
+			arrivedHead = (arrivedHead + 1) % arrived.length;
+			arrivedCount--;
+			
+			table.start(id, time, trace);
+			quantumEnd = table.runQuantum(id, time, trace, Process.QUANTUM_SHARE * table.getExecTime(id));
+			
+			if (!table.isFinished(id)) {
+				heapAdd(id);
+			}
+		}
+		else if (heapSize > 0) {
+			id = heap[0];
+			quantumEnd = table.runQuantum(id, time, trace, Process.QUANTUM_SHARE * table.getExecTime(id));
+			
+			if (table.isFinished(id)) {
+				heapPoll();
+			}
+			else {
+				siftDownTop();
+			}
+		}
+		else {
+			return; //nothing to run, wait for the next arrival
+		}
+		
+		running = true;
+	}
+	
+	/**
+	 * run the simulation until all processes are finished and write the waiting times
+	 */
+	public void run() {
+		
+		try {
+			simulate();
+		}
+		
+		catch(Exception ex) {
+			System.out.println(ex.getMessage());
+		}
+	}
+	
+	/**
+	 * run the simulation until all processes are finished and write the waiting times
+	 * @throws IOException if the output file can't be written
+	 */
+	public void simulate() throws IOException {
+		
+		try {
+			boolean isProcessInWaitq = waitq.next(); //true if there are processes in the wait queue
+			
+			while (isProcessInWaitq || running) {
+				
+				//an arrival at the same time as the end of a quantum comes first
+				if (isProcessInWaitq && (!running || waitq.getArrivalTime() <= quantumEnd)) {
+					int arrival = waitq.getArrivalTime();
+					table.add(waitq.getId(), arrival, waitq.getBurstTime());
+					arrive(waitq.getId());
+					trace.arrived(arrival, waitq.getId());
+					isProcessInWaitq = waitq.next();
+					
+					//if the CPU is busy, the process starts when the current quantum ends
+					if (running) {
+						continue;
+					}
+					time = EventScheduler.idleUntil(time, arrival);
+				}
+				
+				else {
+					time = quantumEnd;
+					running = false;
+				}
+				
+				dispatch();
+			}
+			
+			trace.waitTimes(table.getWaitTimes());
+		}
+		
+		finally {
+			trace.close();
+			waitq.close();
+		}
+	}
+
+}
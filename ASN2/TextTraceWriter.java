@@ -0,0 +1,47 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * trace in the text format of output.txt
+ * @author Ajevan
+ *
+ */
+public class TextTraceWriter implements TraceWriter {
+	
+	private BufferedWriter bufferedwriter;
+	
+	/**
+	 * text trace constructor
+	 * @param fn filename of the output file
+	 * @throws IOException
+	 */
+	public TextTraceWriter(String fn) throws IOException {
+		bufferedwriter = new BufferedWriter(new FileWriter(fn));
+	}
+	
+	@Override
+	public void arrived(double time, int id) {
+	}
+	
+	@Override
+	public void event(double time, int id, Process.State state) throws IOException {
+		//ONLY when writing to output, format time to 2 decimal places; in reality time is of type double
+		bufferedwriter.write(String.format("Time %.2f, Process %d, %s\n", time, id, state));
+	}
+	
+	@Override
+	public void waitTimes(WaitTimes waits) throws IOException {
+		bufferedwriter.write("-------------------------------------\nWaiting Times:\n");
+		
+		for (int i = 0; i < waits.size(); i++) {
+			bufferedwriter.write(String.format("Process %d: %.2f\n", waits.getProcId(i), waits.getWaitTime(i)));
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		bufferedwriter.close();
+	}
+
+}
@@ -0,0 +1,106 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * offline tool that turns a binary trace written by BinaryTraceWriter into the text format of output.txt
+ * @author Ajevan
+ *
+ */
+public class TraceRenderer {
+	
+	/**
+	 * render a binary trace as text
+	 * @param in filename of the binary trace
+	 * @param out filename of the text output
+	 * @throws Exception if the binary trace is invalid
+	 */
+	public static void render(String in, String out) throws Exception {
+		FileChannel channel = FileChannel.open(Paths.get(in), StandardOpenOption.READ);
+		BufferedWriter bw = new BufferedWriter(new FileWriter(out));
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BinaryTraceWriter.BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		Process.State[] states = Process.State.values();
+		boolean footer = false; //true once the waiting times started
+		
+		try {
+			//read until the buffer holds at least the header
+			while (buffer.position() < BinaryTraceWriter.HEADER_SIZE && channel.read(buffer) >= 0) {
+			}
+			buffer.flip();
+			
+			if (buffer.remaining() < BinaryTraceWriter.HEADER_SIZE || buffer.getInt() != BinaryTraceWriter.MAGIC) {
+				throw new Exception("Not a binary trace: " + in);
+			}
+			if (buffer.getInt() != BinaryTraceWriter.VERSION) {
+				throw new Exception("Unknown binary trace version: " + in);
+			}
+			
+			while (true) {
+				
+				//move the partial record to the front and read more
+				if (buffer.remaining() < BinaryTraceWriter.RECORD_SIZE) {
+					buffer.compact();
+					int n = channel.read(buffer);
+					buffer.flip();
+					
+					if (n < 0) {
+						break;
+					}
+					continue;
+				}
+				
+				double value = buffer.getDouble();
+				int id = buffer.getInt();
+				byte kind = buffer.get();
+				
+				if (kind == BinaryTraceWriter.WAIT) {
+					if (!footer) {
+						bw.write("-------------------------------------\nWaiting Times:\n");
+						footer = true;
+					}
+					bw.write(String.format("Process %d: %.2f\n", id, value));
+				}
+				else if (kind >= 0 && kind < states.length) {
+					bw.write(String.format("Time %.2f, Process %d, %s\n", value, id, states[kind]));
+				}
+				else {
+					throw new Exception("Invalid record in binary trace: " + in);
+				}
+			}
+			
+			if (buffer.hasRemaining()) {
+				throw new Exception("Binary trace ends in the middle of a record: " + in);
+			}
+			
+			//the text trace has the header even without waiting times
+			if (!footer) {
+				bw.write("-------------------------------------\nWaiting Times:\n");
+			}
+		}
+		
+		finally {
+			bw.close();
+			channel.close();
+		}
+	}
+	
+	/**
+	 * the arguments are the binary trace (default output.bin) and the text output (default output.txt)
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		
+		try {
+			render(args.length > 0 ? args[0] : "output.bin", args.length > 1 ? args[1] : "output.txt");
+		}
+		
+		catch (Exception ex) {
+			System.out.println(ex.getMessage());
+		}
+	}
+
+}
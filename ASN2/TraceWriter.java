@@ -0,0 +1,42 @@
+import java.io.IOException;
+
+/**
+ * destination of the trace of a simulation: every state change of every process, then the waiting
+ * time of every process
+ * @author Ajevan
+ *
+ */
+public interface TraceWriter {
+	
+	/**
+	 * record that a process arrived. The text and binary traces have no line for an arrival; the
+	 * process shows up when it is STARTED
+	 * @param time arrival time of the process
+	 * @param id id of the process
+	 * @throws IOException
+	 */
+	void arrived(double time, int id) throws IOException;
+	
+	/**
+	 * record that a process changed state
+	 * @param time time of the change
+	 * @param id id of the process
+	 * @param state new state of the process
+	 * @throws IOException
+	 */
+	void event(double time, int id, Process.State state) throws IOException;
+	
+	/**
+	 * record the waiting times at the end of the simulation
+	 * @param waits waiting times of every process of the simulation, in the order of the output
+	 * @throws IOException
+	 */
+	void waitTimes(WaitTimes waits) throws IOException;
+	
+	/**
+	 * write what is left in the buffer and close the file
+	 * @throws IOException
+	 */
+	void close() throws IOException;
+
+}
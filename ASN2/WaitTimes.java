@@ -0,0 +1,103 @@
+import java.util.Arrays;
+
+/**
+ * waiting times of the processes of a simulation, kept after the processes themselves are gone. It
+ * holds an id, a waiting time and a longest single wait per process in plain arrays, in the order
+ * the processes arrived, which is the order of the waiting times in the output file. It can also
+ * be a view of the columns of a ProcessTable
+ * @author Ajevan
+ *
+ */
+public class WaitTimes {
+	
+	private int[] order; //ids of the processes in order of arrival; null if every id is its place in that order
+	private double[] waitTime; //waiting time of each process, by id
+	private double[] maxWait; //longest single wait of each process, by id
+	private int size = 0; //number of processes that arrived
+	
+	/**
+	 * empty waiting times, filled in as the processes arrive and finish
+	 */
+	public WaitTimes() {
+		this(new int[16], new double[16], new double[16], 0);
+	}
+	
+	/**
+	 * waiting times in the given arrays, which are used as they are, without a copy
+	 * @param order ids of the processes in order of arrival; null if the ids are already in order of arrival
+	 * @param waitTime waiting time of each process, by id
+	 * @param maxWait longest single wait of each process, by id
+	 * @param size number of processes that arrived
+	 */
+	public WaitTimes(int[] order, double[] waitTime, double[] maxWait, int size) {
+		this.order = order;
+		this.waitTime = waitTime;
+		this.maxWait = maxWait;
+		this.size = size;
+	}
+	
+	/**
+	 * record that a process arrived
+	 * @param p the process
+	 */
+	public void arrived(Process p) {
+		int id = p.getProcId();
+		
+		if (size == order.length) {
+			order = Arrays.copyOf(order, 2 * order.length);
+		}
+		if (id >= waitTime.length) {
+			int length = Math.max(id + 1, 2 * waitTime.length);
+			waitTime = Arrays.copyOf(waitTime, length);
+			maxWait = Arrays.copyOf(maxWait, length);
+		}
+		
+		order[size++] = id;
+		finished(p);
+	}
+	
+	/**
+	 * record the waiting times of a process that finished
+	 * @param p the process
+	 */
+	public void finished(Process p) {
+		waitTime[p.getProcId()] = p.getWaitTime();
+		maxWait[p.getProcId()] = p.getMaxWait();
+	}
+	
+	/**
+	 * return the number of processes that arrived
+	 * @return size
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * return the id of a process
+	 * @param i the process, in order of arrival
+	 * @return id
+	 */
+	public int getProcId(int i) {
+		return order == null ? i : order[i];
+	}
+	
+	/**
+	 * return the time a process spent waiting
+	 * @param i the process, in order of arrival
+	 * @return waitTime
+	 */
+	public double getWaitTime(int i) {
+		return waitTime[getProcId(i)];
+	}
+	
+	/**
+	 * return the longest time a process waited for the CPU at once
+	 * @param i the process, in order of arrival
+	 * @return maxWait
+	 */
+	public double getMaxWait(int i) {
+		return maxWait[getProcId(i)];
+	}
+
+}
@@ -0,0 +1,161 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.util.Random;
+
+/**
+ * generator of synthetic workloads for stress testing the schedulers. It writes process files in the
+ * two column format of input.txt (also the processes.txt of ASN3), with Poisson arrivals, heavy tailed
+ * (Pareto) bursts and optional arrival spikes, and command files in the format of the commands.txt of
+ * ASN3. Every line is written as soon as it is generated, so the size of a file is only limited by the
+ * disk, and the same seed always gives the same file
+ * @author Ajevan
+ *
+ */
+public class WorkloadGenerator {
+	
+	public static final int BUFFER_SIZE = 1 << 20; //characters collected before a write to the file
+	public static final int MAX_BURST = 1000000000; //longest burst time, so that heavy tails still fit an int
+	
+	/**
+	 * write a process file. The gaps between arrivals are exponential (a Poisson process), the burst
+	 * times are Pareto distributed, and at every arrival a spike of spikeSize processes arrives at the
+	 * same time with probability spikeProb
+	 * @param fn filename of the process file
+	 * @param count number of processes
+	 * @param rnd random number generator
+	 * @param meanGap mean time between arrivals
+	 * @param alpha shape of the burst times; a lower alpha gives a heavier tail
+	 * @param minBurst shortest burst time, the scale of the Pareto distribution
+	 * @param spikeProb probability that an arrival is a spike
+	 * @param spikeSize number of processes in a spike
+	 * @throws Exception if the settings are invalid
+	 */
+	public static void processes(String fn, long count, Random rnd, double meanGap, double alpha, double minBurst,
+			double spikeProb, int spikeSize) throws Exception {
+		
+		if (meanGap < 0 || alpha <= 0 || minBurst < 1 || spikeProb < 0 || spikeProb > 1 || spikeSize < 1) {
+			throw new Exception("Invalid workload settings!");
+		}
+		
+		BufferedWriter bw = new BufferedWriter(new FileWriter(fn), BUFFER_SIZE);
+		double time = 1; //arrival time of the next process; 1 is the system start time
+		
+		try {
+			for (long i = 0; i < count; ) {
+				if (time > Integer.MAX_VALUE) {
+					throw new Exception("Arrival times are too large, use a shorter mean gap!");
+				}
+				
+				int arrival = (int) time;
+				int arrivals = rnd.nextDouble() < spikeProb ? spikeSize : 1; //processes that arrive at this time
+				
+				for (int j = 0; j < arrivals && i < count; j++, i++) {
+					double burst = minBurst / Math.pow(1 - rnd.nextDouble(), 1 / alpha);
+					
+					bw.write(Integer.toString(arrival));
+					bw.write('\t');
+					bw.write(Integer.toString((int) Math.min(MAX_BURST, Math.ceil(burst))));
+					bw.write('\n');
+				}
+				
+				time += -meanGap * Math.log(1 - rnd.nextDouble());
+			}
+		}
+		
+		finally {
+			bw.close();
+		}
+	}
+	
+	/**
+	 * write a command file. Every command is a store, a lookup or a release of one of the variables;
+	 * with a skew above 1 the variables with low ids are used much more often, like a working set
+	 * @param fn filename of the command file
+	 * @param count number of commands
+	 * @param rnd random number generator
+	 * @param variables number of different variables
+	 * @param skew 1 for variables used evenly, higher for a smaller working set
+	 * @throws Exception if the settings are invalid
+	 */
+	public static void commands(String fn, long count, Random rnd, int variables, double skew) throws Exception {
+		
+		if (variables < 1 || skew < 1) {
+			throw new Exception("Invalid command settings!");
+		}
+		
+		BufferedWriter bw = new BufferedWriter(new FileWriter(fn), BUFFER_SIZE);
+		
+		try {
+			for (long i = 0; i < count; i++) {
+				int var = 1 + (int) (variables * Math.pow(rnd.nextDouble(), skew)); //id of the variable
+				double cmd = rnd.nextDouble();
+				
+				//40% stores, 45% lookups, 15% releases
+				if (cmd < 0.4) {
+					bw.write("Store\t" + var + "\t" + rnd.nextInt(1000) + "\n");
+				}
+				else if (cmd < 0.85) {
+					bw.write("Lookup\t" + var + "\n");
+				}
+				else {
+					bw.write("Release\t" + var + "\n");
+				}
+			}
+		}
+		
+		finally {
+			bw.close();
+		}
+	}
+	
+	/**
+	 * the arguments are either
+	 * processes file count [seed] [meanGap] [alpha] [minBurst] [spikeProb] [spikeSize]
+	 * with the defaults 346, 4, 1.5, 1, 0 and 100, or
+	 * commands file count [seed] [variables] [skew]
+	 * with the defaults 346, 10 and 1
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		
+		try {
+			if (args.length < 3) {
+				throw new Exception("Usage: WorkloadGenerator processes|commands <file> <count> [seed] [settings...]");
+			}
+			
+			String kind = args[0].toLowerCase(); //what to generate
+			long count = Long.parseLong(args[2]);
+			Random rnd = new Random(args.length > 3 ? Long.parseLong(args[3]) : 346);
+			long start = System.nanoTime();
+			
+			if (count < 0) {
+				throw new Exception("Count must not be negative!");
+			}
+			
+			if (kind.equals("processes")) {
+				processes(args[1], count, rnd,
+						args.length > 4 ? Double.parseDouble(args[4]) : 4,
+						args.length > 5 ? Double.parseDouble(args[5]) : 1.5,
+						args.length > 6 ? Double.parseDouble(args[6]) : 1,
+						args.length > 7 ? Double.parseDouble(args[7]) : 0,
+						args.length > 8 ? Integer.parseInt(args[8]) : 100);
+			}
+			else if (kind.equals("commands")) {
+				commands(args[1], count, rnd,
+						args.length > 4 ? Integer.parseInt(args[4]) : 10,
+						args.length > 5 ? Double.parseDouble(args[5]) : 1);
+			}
+			else {
+				throw new Exception("Unknown workload: " + kind);
+			}
+			
+			System.out.println(String.format("Wrote %d %s to %s in %.2f s", count, kind, args[1],
+					(System.nanoTime() - start) / 1e9));
+		}
+		
+		catch (Exception ex) {
+			System.out.println(ex.getMessage());
+		}
+	}
+
+}
@@ -1,24 +1,16 @@
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Scanner;
 
-/**************************************************************************************
- * THIS PROGRAM MIGHT NEED TO BE RUN MULTIPLE TIMES SINCE IT IS USING THREAD
- * RESUME/SUSPEND METHODS, WHICH HAVE UNPREDICTABLE BEHAVIOUR
- * 
- * Hence, the program might be frozen, or the program might run to completion,
- * but may contain errors in the output. Therefore, always check the output file
- * to make sure that the program ran correctly.
- * ************************************************************************************
- */
 /**************************************************************************************
  * THE OUTPUT IN THE CONSOLE IS FOR DEBUGGING ONLY.
  * THE ACTUAL OUTPUT IS IN THE output.txt FILE.
  * ************************************************************************************
  */
 /**************************************************************************************
- * BEFORE EVERY RUN OF THE PROGRAM, DELETE THE vm.txt FILE SO THAT THE CONTENTS
- * LEFT ON DISK FROM THE PREVIOUS RUN DOES NOT CORRUPT THE CURRENT RUN.
+ * THE DISK OF THE VMM IS THE vm.dat FILE, WHICH IS EMPTIED AT THE START OF EVERY RUN
+ * UNLESS IT IS RESUMED WITH -store resume.
  * ************************************************************************************
  */
 
@@ -28,13 +20,108 @@ import java.util.Scanner;
  *
  */
 public class App {
-
+	
+	/**
+	 * create the scheduling policy named in the arguments
+	 * @param args the policy name followed by its quantum
+	 * @return the policy; round-robin if no policy is named
+	 * @throws Exception if the policy is unknown
+	 */
+	public static SchedulingPolicy policy(String[] args) throws Exception {
+		String name = args.length > 0 ? args[0].toLowerCase() : "rr";
+		double quantum = args.length > 1 ? Double.parseDouble(args[1]) : Process.QUANTUM;
+		
+		if (name.equals("rr")) {
+			return new RoundRobinPolicy(quantum);
+		}
+		
+		if (name.equals("srtf")) {
+			return new SrtfPolicy(quantum);
+		}
+		
+		throw new Exception("Unknown scheduling policy: " + name);
+	}
+	
+	/**
+	 * create the replacement policy of the vmm
+	 * @param name lru, fifo, clock, lfu or arc
+	 * @param frames size of main memory
+	 * @return the policy
+	 * @throws Exception if the policy is unknown
+	 */
+	public static ReplacementPolicy replacement(String name, int frames) throws Exception {
+		name = name.toLowerCase();
+		
+		if (name.equals("lru")) {
+			return new LruReplacement();
+		}
+		
+		if (name.equals("fifo")) {
+			return new FifoReplacement();
+		}
+		
+		if (name.equals("clock")) {
+			return new ClockReplacement();
+		}
+		
+		if (name.equals("lfu")) {
+			return new LfuReplacement();
+		}
+		
+		if (name.equals("arc")) {
+			return new ArcReplacement(frames);
+		}
+		
+		throw new Exception("Unknown replacement policy: " + name);
+	}
+	
+	/**
+	 * open the disk of the vmm, vm.dat
+	 * @param name file for a file of slots, emptied first; mapped for a memory-mapped file of slots,
+	 * emptied first; or resume for a memory-mapped file of slots with the variables of the last run
+	 * @return the disk
+	 * @throws Exception if the kind of disk is unknown
+	 */
+	public static DiskStore disk(String name) throws Exception {
+		name = name.toLowerCase();
+		
+		if (name.equals("file")) {
+			return DiskStore.file("vm.dat");
+		}
+		
+		if (name.equals("mapped") || name.equals("resume")) {
+			return new MappedDiskStore("vm.dat", name.equals("resume"));
+		}
+		
+		throw new Exception("Unknown disk: " + name);
+	}
+	
+	/**
+	 * the optional arguments are -replace followed by the replacement policy of the vmm, lru (default),
+	 * fifo, clock, lfu or arc, and -store followed by the disk of the vmm, file (default), mapped or
+	 * resume (see disk), then the scheduling policy, rr (default) or srtf, and its quantum (default
+	 * 1000). The output file ends with the replacement policy and its hits, misses and swaps
+	 * @param args
+	 */
 	public static void main(String[] args) {
 		
 		try {
+			String replacementName = "lru"; //replacement policy of the vmm
+			String diskName = "file"; //kind of disk of the vmm
+			
+			while (args.length > 1 && (args[0].equals("-replace") || args[0].equals("-store"))) {
+				if (args[0].equals("-replace")) {
+					replacementName = args[1];
+				}
+				else {
+					diskName = args[1];
+				}
+				args = Arrays.copyOfRange(args, 2, args.length);
+			}
+			
+			SchedulingPolicy policy = policy(args); //chooses the ready process that gets a free CPU
 			int numOfElements = 0; //number of elements in the file
-			int numOfProc = 0; //number of processes
-			Process[] processes; //array of processes from file
+			ProcessSource processes; //processes from file
 			Scheduler sch; //the scheduler object
 			int memArraySize = 0; //main memory size
 			Command[] cmds; //array of commands
@@ -42,48 +129,14 @@ public class App {
 			//*****************************************************
 			//read processes from file
 			//*****************************************************
-			File procFile = new File("processes.txt");
-			Scanner sc = new Scanner(procFile);
-			
-			//get the number of elements in the file & make sure there isn't missing data
-			while (sc.hasNextInt()) {
-				sc.nextInt();
-				numOfElements++;
-			}
-			
-			if (numOfElements % 2 != 0) {
-				sc.close();
-				throw new Exception("Number of elements in file is odd");
-			}
-			
-			//reset the scanner to the beginning
-			sc.close(); 
-			sc = new Scanner(procFile);
-			
-			numOfProc = numOfElements / 2;
-			processes = new Process[numOfProc];
-			
-			//get the processes from file & create object
-			for (int i = 0; sc.hasNextInt(); i++) {
-				int arrivalTime = sc.nextInt();
-				double execTime = sc.nextInt();
-				
-				if (arrivalTime < 1 || execTime < 0) {
-					sc.close();
-					throw new Exception("Arrival time is less than system start time or burst time is negative!");
-				}
-				
-				processes[i] = new Process(String.valueOf(i), arrivalTime*1000, execTime*1000);
-			}
-			
-			sc.close();
-			Arrays.sort(processes, new ProcessSorter()); //sort processes based on arrival time
+			//the processes are read as they arrive; a file that isn't sorted by arrival time is sorted on disk
+			processes = ProcessSource.open("processes.txt");
 			
 			//*****************************************************
 			//read memory config file
 			//*****************************************************
 			File memFile = new File("memconfig.txt");
-			sc = new Scanner(memFile);
+			Scanner sc = new Scanner(memFile);
 			
 			memArraySize = sc.nextInt();
 			sc.close();
@@ -91,6 +144,8 @@ public class App {
 			if (memArraySize < 1) {
 				throw new Exception("Invalid main memory size");
 			}
+			ReplacementPolicy replacement = replacement(replacementName, memArraySize); //chooses the variable that is swapped out
+			DiskStore disk = disk(diskName); //the disk of the vmm
 			
 			//*****************************************************
 			//read commands file
@@ -139,9 +194,21 @@ public class App {
 			}
 			sc.close();
 			
-			sch = new Scheduler(processes, cmds, memArraySize, "output.txt");
+			sch = new Scheduler(processes, cmds, memArraySize, "output.txt", policy, replacement, disk);
 			sch.start();
 			sch.join();
+			
+			//the same waiting times as in the output file, so that runs of different policies can be compared
+			System.out.println(policy.getName() + " waiting times:");
+			
+			ArrayList<Process> arrived = sch.getArrived();
+			for (int i = 0; i < arrived.size(); i++) {
+				System.out.println(String.format("Process %s: %.0f", arrived.get(i).getProcName(), arrived.get(i).getWaitTime()));
+			}
+			
+			VMM vmm = sch.getVmm();
+			System.out.println(String.format("%s replacement: %d hits, %d misses, %d swaps", 
+					vmm.getPolicyName(), vmm.getHits(), vmm.getMisses(), vmm.getSwaps()));
 			System.out.println("Done");
 		}
 		
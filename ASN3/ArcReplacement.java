@@ -0,0 +1,145 @@
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * adaptive replacement cache (Megiddo and Modha): main memory is split between T1, variables accessed
+ * once since they came in, and T2, variables accessed again, each in order of last access. The ids of
+ * the variables swapped out of them are remembered in B1 and B2, up to the size of main memory. A
+ * lookup of an id in B1 means T1 should have been bigger and one in B2 that T2 should have been, and
+ * the target size of T1 moves that way. Main memory has frames free after a release, so a variable can
+ * come in without a swap; it is then added like after a swap, without one
+ * @author Ajevan
+ *
+ */
+public class ArcReplacement implements ReplacementPolicy {
+	
+	private int c; //number of frames of main memory
+	private double target = 0; //target size of T1
+	
+	private VariableList t1 = new VariableList(); //variables accessed once, least recently accessed first
+	private VariableList t2 = new VariableList(); //variables accessed more than once, least recently accessed first
+	private HashSet<Variable> frequent = new HashSet<Variable>(); //the variables in t2
+	private LinkedHashSet<String> b1 = new LinkedHashSet<String>(); //ids swapped out of t1, oldest first
+	private LinkedHashSet<String> b2 = new LinkedHashSet<String>(); //ids swapped out of t2, oldest first
+	
+	private String adapted = null; //id whose lookup already moved the target, by victim
+	
+	/**
+	 * arc constructor
+	 * @param c number of frames of main memory
+	 */
+	public ArcReplacement(int c) {
+		this.c = c;
+	}
+	
+	@Override
+	public String getName() {
+		return "ARC";
+	}
+	
+	/**
+	 * move the target size of T1 if the id was swapped out recently
+	 * @param id id of the variable that comes into main memory
+	 */
+	private void adapt(String id) {
+		if (b1.contains(id)) {
+			target = Math.min(c, target + Math.max((double) b2.size() / b1.size(), 1));
+		}
+		else if (b2.contains(id)) {
+			target = Math.max(0, target - Math.max((double) b1.size() / b2.size(), 1));
+		}
+	}
+	
+	/**
+	 * forget the oldest id of a list of ids
+	 * @param b the list
+	 */
+	private static void removeOldest(LinkedHashSet<String> b) {
+		Iterator<String> it = b.iterator();
+		it.next();
+		it.remove();
+	}
+	
+	@Override
+	public void loaded(Variable v) {
+		String id = v.getId();
+		
+		if (!id.equals(adapted)) {
+			adapt(id);
+		}
+		adapted = null;
+		
+		if (b1.remove(id) || b2.remove(id)) {
+			t2.addLast(v);
+			frequent.add(v);
+		}
+		else {
+			t1.addLast(v);
+		}
+		
+		//keep at most c ids in T1 and B1, and at most 2c in all lists
+		while (t1.size() + b1.size() > c && b1.size() > 0) {
+			removeOldest(b1);
+		}
+		while (t1.size() + t2.size() + b1.size() + b2.size() > 2 * c) {
+			removeOldest(b2.size() > 0 ? b2 : b1);
+		}
+	}
+	
+	@Override
+	public void accessed(Variable v) {
+		if (frequent.add(v)) {
+			t1.remove(v);
+		}
+		else {
+			t2.remove(v);
+		}
+		t2.addLast(v);
+	}
+	
+	@Override
+	public void removed(Variable v) {
+		if (frequent.remove(v)) {
+			t2.remove(v);
+		}
+		else {
+			t1.remove(v);
+		}
+	}
+	
+	@Override
+	public Variable victim(String id) {
+		boolean inB1 = b1.contains(id);
+		boolean inB2 = b2.contains(id);
+		adapt(id);
+		adapted = id;
+		
+		if (!inB1 && !inB2) {
+			//T1 and B1 are full: forget the oldest id of B1, or if T1 fills main memory, swap out of T1 and don't remember it
+			if (t1.size() + b1.size() >= c) {
+				if (b1.size() == 0) {
+					return t1.poll();
+				}
+				removeOldest(b1);
+			}
+			else if (t1.size() + t2.size() + b1.size() + b2.size() >= 2 * c && b2.size() > 0) {
+				removeOldest(b2);
+			}
+		}
+		
+		//swap out of T1 if it is bigger than its target, otherwise out of T2
+		Variable v;
+		if (t1.size() > 0 && (t1.size() > target || (inB2 && t1.size() == target) || t2.size() == 0)) {
+			v = t1.poll();
+			b1.add(v.getId());
+		}
+		else {
+			v = t2.poll();
+			frequent.remove(v);
+			b2.add(v.getId());
+		}
+		return v;
+	}
+
+}
@@ -0,0 +1,46 @@
+import java.util.HashSet;
+
+/**
+ * clock, or second chance: the variables are in a circle in the order they came into main memory and
+ * an access sets the reference bit of a variable. The hand goes around the circle, clearing the bits it
+ * passes, and the first variable whose bit is clear is swapped out. The circle is a list with the hand
+ * at its head, so passing a variable moves it to the end
+ * @author Ajevan
+ *
+ */
+public class ClockReplacement implements ReplacementPolicy {
+	
+	private VariableList circle = new VariableList(); //variables in main memory, starting at the hand
+	private HashSet<Variable> referenced = new HashSet<Variable>(); //variables whose reference bit is set
+	
+	@Override
+	public String getName() {
+		return "CLOCK";
+	}
+	
+	@Override
+	public void loaded(Variable v) {
+		circle.addLast(v);
+	}
+	
+	@Override
+	public void accessed(Variable v) {
+		referenced.add(v);
+	}
+	
+	@Override
+	public void removed(Variable v) {
+		circle.remove(v);
+		referenced.remove(v);
+	}
+	
+	@Override
+	public Variable victim(String id) {
+		//every variable is passed at most once, since its bit is clear when the hand comes around again
+		while (referenced.remove(circle.getHead())) {
+			circle.moveToEnd(circle.getHead());
+		}
+		return circle.poll();
+	}
+
+}
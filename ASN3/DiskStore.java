@@ -0,0 +1,284 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * the disk of the vmm: fixed-size slots with a hash index from variable id to slots and a stack of the
+ * slots that are free, so reading, writing or removing a variable reads or writes its own slots instead
+ * of the whole disk. A variable is a record of its id and value (each a length and UTF-8 bytes) and its
+ * last access time; a record that doesn't fit in one slot goes on in more slots, chained from the
+ * first. A slot holds a flag (free, first or next slot of a record), the next slot of the record and a
+ * part of the record. The disk never shrinks; a removed variable leaves free slots for the next one.
+ * Subclasses keep the slots, in a file or in a mapped file
+ * @author Ajevan
+ *
+ */
+public abstract class DiskStore {
+	
+	public static final int SLOT = 128; //size of a slot in bytes
+	public static final int HEADER = 1 + 4; //flag and next slot
+	public static final int PAYLOAD = SLOT - HEADER; //bytes of the record in a slot
+	public static final byte FREE = 0; //flag of a free slot
+	public static final byte FIRST = 1; //flag of the first slot of a record
+	public static final byte NEXT = 2; //flag of the other slots of a record
+	
+	private HashMap<String, int[]> index = new HashMap<String, int[]>(); //slots of every variable on disk, by id, in record order
+	private int[] freeSlots = new int[16]; //stack of the slots that are free
+	private int numFree = 0; //number of free slots
+	private int slots = 0; //number of slots, used or free
+	private byte[] buf = new byte[SLOT]; //one slot
+	
+	/**
+	 * read a slot
+	 * @param slot the slot
+	 * @param buf the bytes of the slot are put in here
+	 * @throws IOException
+	 */
+	protected abstract void readSlot(int slot, byte[] buf) throws IOException;
+	
+	/**
+	 * write a slot
+	 * @param slot the slot; at most the number of slots, which adds a slot
+	 * @param buf the bytes of the slot
+	 * @throws IOException
+	 */
+	protected abstract void writeSlot(int slot, byte[] buf) throws IOException;
+	
+	/**
+	 * mark a slot free
+	 * @param slot the slot
+	 * @throws IOException
+	 */
+	protected abstract void clearSlot(int slot) throws IOException;
+	
+	/**
+	 * write everything that was written to the disk through to the device, for a checkpoint
+	 * @throws IOException
+	 */
+	public abstract void force() throws IOException;
+	
+	/**
+	 * release the disk; what wasn't forced may still be written back later by the operating system
+	 * @throws IOException
+	 */
+	public abstract void close() throws IOException;
+	
+	/**
+	 * disk in a file of slots, emptied when it is opened
+	 * @param fn filename of the disk
+	 * @return the disk
+	 * @throws IOException
+	 */
+	public static DiskStore file(String fn) throws IOException {
+		return new FileDiskStore(fn);
+	}
+	
+	/**
+	 * read the index and the free slots from the slots that are already there, e.g. when a disk is
+	 * opened again after a checkpoint. Free slots after the last used slot, e.g. of a file that was
+	 * made bigger than it needed, are left out, so a disk without variables is like a new one
+	 * @param existing number of slots already there
+	 * @throws IOException
+	 */
+	protected void rebuild(int existing) throws IOException {
+		index.clear();
+		numFree = 0;
+		slots = 0;
+		byte[] flags = new byte[existing]; //flag of every slot
+		
+		for (int slot = 0; slot < existing; slot++) {
+			readSlot(slot, buf);
+			flags[slot] = buf[0];
+			
+			if (buf[0] != FREE) {
+				slots = slot + 1;
+			}
+		}
+		
+		//the lowest free slot is used first
+		for (int slot = slots - 1; slot >= 0; slot--) {
+			if (flags[slot] == FREE) {
+				pushFree(slot);
+			}
+			else if (flags[slot] == FIRST) {
+				int[] chain = chain(slot);
+				index.put(decode(gather(chain)).getId(), chain);
+			}
+		}
+	}
+	
+	/**
+	 * return the slots of the record that starts in a slot, following the next slots
+	 * @param first the first slot of the record
+	 * @return the slots in record order
+	 * @throws IOException
+	 */
+	private int[] chain(int first) throws IOException {
+		int[] chain = new int[1];
+		int n = 0;
+		int slot = first;
+		
+		while (slot >= 0) {
+			if (n == chain.length) {
+				chain = Arrays.copyOf(chain, 2 * n);
+			}
+			chain[n++] = slot;
+			readSlot(slot, buf);
+			slot = ByteBuffer.wrap(buf).getInt(1);
+		}
+		return Arrays.copyOf(chain, n);
+	}
+	
+	/**
+	 * put a slot on the stack of free slots
+	 * @param slot the slot
+	 */
+	private void pushFree(int slot) {
+		if (numFree == freeSlots.length) {
+			freeSlots = Arrays.copyOf(freeSlots, 2 * numFree);
+		}
+		freeSlots[numFree++] = slot;
+	}
+	
+	/**
+	 * take a free slot, or add a slot if none is free
+	 * @return the slot
+	 */
+	private int takeFree() {
+		return numFree > 0 ? freeSlots[--numFree] : slots++;
+	}
+	
+	/**
+	 * return the record of a variable
+	 * @param v the variable
+	 * @return id length, id, value length, value and last access time
+	 */
+	private static byte[] encode(Variable v) {
+		byte[] id = v.getId().getBytes(StandardCharsets.UTF_8);
+		byte[] val = v.getVal().getBytes(StandardCharsets.UTF_8);
+		
+		ByteBuffer b = ByteBuffer.allocate(4 + id.length + 4 + val.length + 8);
+		b.putInt(id.length).put(id);
+		b.putInt(val.length).put(val);
+		b.putDouble(v.getLastAccess());
+		return b.array();
+	}
+	
+	/**
+	 * return the variable of a record
+	 * @param record the record, followed by anything
+	 * @return the variable
+	 */
+	private static Variable decode(byte[] record) {
+		ByteBuffer b = ByteBuffer.wrap(record);
+		
+		int idLen = b.getInt();
+		String id = new String(record, b.position(), idLen, StandardCharsets.UTF_8);
+		b.position(b.position() + idLen);
+		
+		int valLen = b.getInt();
+		String val = new String(record, b.position(), valLen, StandardCharsets.UTF_8);
+		b.position(b.position() + valLen);
+		
+		return new Variable(id, val, b.getDouble());
+	}
+	
+	/**
+	 * read the parts of a record from its slots
+	 * @param chain the slots of the record
+	 * @return the record, padded to whole slots
+	 * @throws IOException
+	 */
+	private byte[] gather(int[] chain) throws IOException {
+		byte[] record = new byte[chain.length * PAYLOAD];
+		
+		for (int i = 0; i < chain.length; i++) {
+			readSlot(chain[i], buf);
+			System.arraycopy(buf, HEADER, record, i * PAYLOAD, PAYLOAD);
+		}
+		return record;
+	}
+	
+	/**
+	 * return the number of slots, used or free
+	 * @return slots; 0 until the first variable is written
+	 */
+	public int getSlots() {
+		return this.slots;
+	}
+	
+	/**
+	 * return whether a variable is on disk
+	 * @param id variable id
+	 * @return true if it is
+	 */
+	public boolean contains(String id) {
+		return index.containsKey(id);
+	}
+	
+	/**
+	 * read a variable from disk
+	 * @param id variable id
+	 * @return the variable; null if it isn't on disk
+	 * @throws IOException
+	 */
+	public Variable read(String id) throws IOException {
+		int[] chain = index.get(id);
+		return chain == null ? null : decode(gather(chain));
+	}
+	
+	/**
+	 * write a variable to disk, over the variable with the same id if there is one. Its record takes
+	 * as many slots as it needs; the slots of the old record are used first
+	 * @param v the variable
+	 * @throws IOException
+	 */
+	public void write(Variable v) throws IOException {
+		byte[] record = encode(v);
+		int n = (record.length + PAYLOAD - 1) / PAYLOAD; //number of slots of the record
+		int[] old = index.get(v.getId());
+		int[] chain = old == null ? new int[n] : Arrays.copyOf(old, n);
+		
+		for (int i = old == null ? 0 : old.length; i < n; i++) {
+			chain[i] = takeFree();
+		}
+		
+		//slots of the old record that the new one doesn't need
+		for (int i = n; old != null && i < old.length; i++) {
+			clearSlot(old[i]);
+			pushFree(old[i]);
+		}
+		
+		for (int i = 0; i < n; i++) {
+			Arrays.fill(buf, (byte) 0);
+			ByteBuffer b = ByteBuffer.wrap(buf);
+			b.put(i == 0 ? FIRST : NEXT);
+			b.putInt(i < n - 1 ? chain[i + 1] : -1);
+			b.put(record, i * PAYLOAD, Math.min(PAYLOAD, record.length - i * PAYLOAD));
+			writeSlot(chain[i], buf);
+		}
+		index.put(v.getId(), chain);
+	}
+	
+	/**
+	 * remove a variable from disk, which frees its slots
+	 * @param id variable id
+	 * @return true if the variable was on disk, false otherwise
+	 * @throws IOException
+	 */
+	public boolean remove(String id) throws IOException {
+		int[] chain = index.remove(id);
+		if (chain == null) {
+			return false;
+		}
+		
+		for (int i = 0; i < chain.length; i++) {
+			clearSlot(chain[i]);
+			pushFree(chain[i]);
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,123 @@
+import java.io.File;
+
+/**
+ * check of the disks of the vmm: variables with ids and values shorter and longer than a slot are
+ * written, overwritten, read back and removed on a file disk and on a mapped disk, and the mapped disk
+ * is opened again, empty and with its variables. Prints the first thing that is wrong, or that the check passed
+ * @author Ajevan
+ *
+ */
+public class DiskStoreCheck {
+	
+	/**
+	 * make sure a variable on disk has the given value
+	 * @param disk the disk
+	 * @param id variable id
+	 * @param val expected value; null if the variable shouldn't be on disk
+	 * @throws Exception if it doesn't
+	 */
+	private static void expect(DiskStore disk, String id, String val) throws Exception {
+		Variable v = disk.read(id);
+		
+		if (val == null ? v != null : v == null || !val.equals(v.getVal())) {
+			throw new Exception("Variable " + id + " is " + (v == null ? "not on disk" : v.getVal()) + " instead of " + val + "!");
+		}
+	}
+	
+	/**
+	 * return a value of the given length
+	 * @param c character of the value
+	 * @param length number of characters
+	 * @return the value
+	 */
+	private static String value(char c, int length) {
+		StringBuilder sb = new StringBuilder(length);
+		
+		for (int i = 0; i < length; i++) {
+			sb.append(c);
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * write, overwrite, read and remove short and long variables
+	 * @param disk an empty disk
+	 * @throws Exception if something is wrong
+	 */
+	private static void check(DiskStore disk) throws Exception {
+		String longVal = value('x', 3 * DiskStore.SLOT); //takes 4 slots
+		String longId = value('i', DiskStore.SLOT); //an id longer than a slot
+		String midVal = value('y', 2 * DiskStore.SLOT); //takes 3 slots
+		
+		disk.write(new Variable("1", "5", 0));
+		disk.write(new Variable("2", longVal, 1));
+		disk.write(new Variable(longId, "7", 2));
+		expect(disk, "1", "5");
+		expect(disk, "2", longVal);
+		expect(disk, longId, "7");
+		
+		//a long value that gets shorter frees its extra slots, which the next long value uses
+		int slots = disk.getSlots();
+		disk.write(new Variable("2", "6", 3));
+		disk.write(new Variable("3", midVal, 4));
+		expect(disk, "2", "6");
+		expect(disk, "3", midVal);
+		
+		if (disk.getSlots() != slots) {
+			throw new Exception("Freed slots aren't used again: " + disk.getSlots() + " slots instead of " + slots + "!");
+		}
+		
+		disk.write(new Variable("1", longVal + longVal, 5));
+		expect(disk, "1", longVal + longVal);
+		
+		if (!disk.remove("3") || disk.remove("3")) {
+			throw new Exception("Variable 3 isn't removed once!");
+		}
+		expect(disk, "3", null);
+		expect(disk, longId, "7");
+	}
+	
+	public static void main(String[] args) {
+		
+		try {
+			File file = File.createTempFile("vmcheck", ".dat");
+			file.deleteOnExit();
+			
+			DiskStore disk = DiskStore.file(file.getPath());
+			check(disk);
+			disk.close();
+			
+			//a mapped disk without variables is opened again like a new one, though its file is bigger
+			disk = new MappedDiskStore(file.getPath(), false);
+			disk.close();
+			disk = new MappedDiskStore(file.getPath(), true);
+			
+			if (disk.getSlots() != 0) {
+				throw new Exception("Empty mapped disk is opened again with " + disk.getSlots() + " slots!");
+			}
+			
+			check(disk);
+			int slots = disk.getSlots();
+			disk.force();
+			disk.close();
+			
+			//the variables of the mapped disk are still there when it is opened again, in the same slots
+			disk = new MappedDiskStore(file.getPath(), true);
+			expect(disk, "1", value('x', 6 * DiskStore.SLOT));
+			expect(disk, "2", "6");
+			expect(disk, "3", null);
+			
+			if (disk.getSlots() != slots) {
+				throw new Exception("Mapped disk is opened again with " + disk.getSlots() + " slots instead of " + slots + "!");
+			}
+			disk.close();
+			
+			System.out.println("DiskStore check passed");
+		}
+		
+		catch (Exception ex) {
+			System.out.println(ex.getMessage());
+		}
+	}
+
+}
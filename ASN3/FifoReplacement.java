@@ -0,0 +1,35 @@
+/**
+ * first in, first out: the variable that came into main memory first is swapped out, however often it
+ * was accessed since
+ * @author Ajevan
+ *
+ */
+public class FifoReplacement implements ReplacementPolicy {
+	
+	private VariableList list = new VariableList(); //variables in main memory, in the order they came in
+	
+	@Override
+	public String getName() {
+		return "FIFO";
+	}
+	
+	@Override
+	public void loaded(Variable v) {
+		list.addLast(v);
+	}
+	
+	@Override
+	public void accessed(Variable v) {
+	}
+	
+	@Override
+	public void removed(Variable v) {
+		list.remove(v);
+	}
+	
+	@Override
+	public Variable victim(String id) {
+		return list.poll();
+	}
+
+}
@@ -0,0 +1,52 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * disk of the vmm in a file of slots, read and written with seeks; every slot read or written is a
+ * system call. The file is emptied when it is opened
+ * @author Ajevan
+ *
+ */
+public class FileDiskStore extends DiskStore {
+	
+	private RandomAccessFile file; //the slots
+	
+	/**
+	 * file disk constructor
+	 * @param fn filename of the disk; its old content is thrown away
+	 * @throws IOException
+	 */
+	public FileDiskStore(String fn) throws IOException {
+		file = new RandomAccessFile(fn, "rw");
+		file.setLength(0);
+	}
+	
+	@Override
+	protected void readSlot(int slot, byte[] buf) throws IOException {
+		file.seek((long) slot * SLOT);
+		file.readFully(buf);
+	}
+	
+	@Override
+	protected void writeSlot(int slot, byte[] buf) throws IOException {
+		file.seek((long) slot * SLOT);
+		file.write(buf);
+	}
+	
+	@Override
+	protected void clearSlot(int slot) throws IOException {
+		file.seek((long) slot * SLOT);
+		file.write(0);
+	}
+	
+	@Override
+	public void force() throws IOException {
+		file.getChannel().force(false);
+	}
+	
+	@Override
+	public void close() throws IOException {
+		file.close();
+	}
+
+}
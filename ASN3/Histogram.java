@@ -0,0 +1,104 @@
+/**
+ * histogram of times for percentiles over millions of values in constant memory, in the style of an
+ * HDR histogram. Values are counted in hundredths (the precision of the output file); values below
+ * SUB_BUCKETS hundredths have a bucket each, and above that every power of two is split into
+ * SUB_BUCKETS / 2 buckets, so a percentile is within 1 / (SUB_BUCKETS / 2) of the real value
+ * @author Ajevan
+ *
+ */
+public class Histogram {
+	
+	public static final int SUB_BITS = 8;
+	public static final int SUB_BUCKETS = 1 << SUB_BITS; //buckets per power of two, times 2
+	public static final double UNIT = 0.01; //resolution of the values
+	
+	private long[] counts = new long[(64 - SUB_BITS + 1) * (SUB_BUCKETS / 2)]; //number of values per bucket
+	private long count = 0; //number of values
+	private double sum = 0; //sum of the values, for the mean
+	private double max = 0; //largest value
+	
+	/**
+	 * return the bucket of a value
+	 * @param v value in units, not negative
+	 * @return index in counts
+	 */
+	private static int bucket(long v) {
+		if (v < SUB_BUCKETS) {
+			return (int) v;
+		}
+		
+		int shift = 63 - Long.numberOfLeadingZeros(v) - (SUB_BITS - 1); //keeps the top SUB_BITS bits of v
+		return shift * (SUB_BUCKETS / 2) + (int) (v >>> shift);
+	}
+	
+	/**
+	 * return the largest value in units that falls into a bucket
+	 * @param i index in counts
+	 * @return the value
+	 */
+	private static long highest(int i) {
+		if (i < SUB_BUCKETS) {
+			return i;
+		}
+		
+		int shift = i / (SUB_BUCKETS / 2) - 1;
+		long sub = i - shift * (SUB_BUCKETS / 2);
+		return ((sub + 1) << shift) - 1;
+	}
+	
+	/**
+	 * add a value to the histogram
+	 * @param value a time; negative times count as 0
+	 */
+	public void record(double value) {
+		value = Math.max(0, value);
+		counts[bucket(Math.round(value / UNIT))]++;
+		count++;
+		sum += value;
+		max = Math.max(max, value);
+	}
+	
+	/**
+	 * return the number of values
+	 * @return count
+	 */
+	public long getCount() {
+		return this.count;
+	}
+	
+	/**
+	 * return the mean of the values
+	 * @return mean; 0 if there are no values
+	 */
+	public double getMean() {
+		return count == 0 ? 0 : sum / count;
+	}
+	
+	/**
+	 * return the largest value
+	 * @return max; 0 if there are no values
+	 */
+	public double getMax() {
+		return this.max;
+	}
+	
+	/**
+	 * return the value that the given share of the values are less than or equal to
+	 * @param percentile between 0 and 100, e.g. 99 for p99
+	 * @return the highest value of the bucket of that value, but at most max; 0 if there are no values
+	 */
+	public double getPercentile(double percentile) {
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count)); //position of the value in sorted order
+		long seen = 0;
+		
+		for (int i = 0; i < counts.length && count > 0; i++) {
+			seen += counts[i];
+			
+			if (seen >= rank) {
+				return Math.min(max, highest(i) * UNIT);
+			}
+		}
+		return 0;
+	}
+
+}
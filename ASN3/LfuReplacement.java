@@ -0,0 +1,75 @@
+import java.util.HashMap;
+import java.util.TreeMap;
+
+/**
+ * least frequently used: the variable accessed the fewest times since it came into main memory is
+ * swapped out, and of those the least recently accessed. The variables are in a list per number of
+ * accesses, least recently accessed first
+ * @author Ajevan
+ *
+ */
+public class LfuReplacement implements ReplacementPolicy {
+	
+	private HashMap<Variable, Long> counts = new HashMap<Variable, Long>(); //number of accesses of every variable in main memory
+	private TreeMap<Long, VariableList> buckets = new TreeMap<Long, VariableList>(); //variables by number of accesses; no empty lists
+	
+	@Override
+	public String getName() {
+		return "LFU";
+	}
+	
+	/**
+	 * add a variable to the list of its number of accesses
+	 * @param v the variable
+	 * @param count its number of accesses
+	 */
+	private void add(Variable v, long count) {
+		VariableList bucket = buckets.get(count);
+		
+		if (bucket == null) {
+			bucket = new VariableList();
+			buckets.put(count, bucket);
+		}
+		bucket.addLast(v);
+		counts.put(v, count);
+	}
+	
+	/**
+	 * remove a variable from the list of its number of accesses
+	 * @param v the variable
+	 * @return its number of accesses
+	 */
+	private long remove(Variable v) {
+		long count = counts.remove(v);
+		VariableList bucket = buckets.get(count);
+		bucket.remove(v);
+		
+		if (bucket.size() == 0) {
+			buckets.remove(count);
+		}
+		return count;
+	}
+	
+	@Override
+	public void loaded(Variable v) {
+		add(v, 1);
+	}
+	
+	@Override
+	public void accessed(Variable v) {
+		add(v, remove(v) + 1);
+	}
+	
+	@Override
+	public void removed(Variable v) {
+		remove(v);
+	}
+	
+	@Override
+	public Variable victim(String id) {
+		Variable v = buckets.firstEntry().getValue().getHead();
+		remove(v);
+		return v;
+	}
+
+}
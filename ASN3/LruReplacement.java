@@ -0,0 +1,37 @@
+/**
+ * least recently used: the variable whose last access is the oldest is swapped out. The clock never
+ * goes back, so the variables are kept in order of last access, and of variables accessed at the same
+ * time the one accessed first is swapped out
+ * @author Ajevan
+ *
+ */
+public class LruReplacement implements ReplacementPolicy {
+	
+	private VariableList list = new VariableList(); //variables in main memory, least recently accessed first
+	
+	@Override
+	public String getName() {
+		return "LRU";
+	}
+	
+	@Override
+	public void loaded(Variable v) {
+		list.addLast(v);
+	}
+	
+	@Override
+	public void accessed(Variable v) {
+		list.moveToEnd(v);
+	}
+	
+	@Override
+	public void removed(Variable v) {
+		list.remove(v);
+	}
+	
+	@Override
+	public Variable victim(String id) {
+		return list.poll();
+	}
+
+}
@@ -0,0 +1,137 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * disk of the vmm in a memory-mapped file of slots: reading or writing a slot is a copy to or from a
+ * mapped buffer, without a system call, and the operating system writes the pages back when it likes.
+ * force() writes them back now, as a checkpoint. A buffer holds at most 2 GB, so the file is mapped in
+ * segments of 1 GB, and the segment of a slot is its number shifted right; the offsets in the file
+ * are longs. The mapping doubles until it holds the slots, and then grows a segment at a time, up to
+ * the 2^31 slots (256 GB) an int numbers; a slot past those is a "mapped disk full" IOException. A disk
+ * that is kept is opened with its variables, and the index and the free slots are read from the slots
+ * @author Ajevan
+ *
+ */
+public class MappedDiskStore extends DiskStore {
+	
+	public static final int CAPACITY = 1024; //number of slots mapped at first
+	public static final int SEGMENT_SHIFT = 23; //a segment holds 2^23 slots, i.e. 1 GB
+	public static final int SEGMENT_SLOTS = 1 << SEGMENT_SHIFT; //number of slots of a segment
+	
+	private FileChannel channel; //the file
+	private MappedByteBuffer[] segments = new MappedByteBuffer[0]; //the slots, a segment per buffer; only the last one may be shorter
+	private long capacity = 0; //number of slots mapped
+	
+	/**
+	 * mapped disk constructor
+	 * @param fn filename of the disk
+	 * @param keep true to keep the variables of the file, e.g. after a checkpoint; false to empty it
+	 * @throws IOException
+	 */
+	public MappedDiskStore(String fn, boolean keep) throws IOException {
+		channel = FileChannel.open(Paths.get(fn), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		
+		if (!keep) {
+			channel.truncate(0);
+		}
+		
+		long existing = channel.size() / SLOT; //a slot cut short at the end of the file is ignored
+		if (existing > Integer.MAX_VALUE) {
+			throw new IOException("mapped disk full!");
+		}
+		map(Math.max(CAPACITY, existing));
+		
+		if (existing > 0) {
+			rebuild((int) existing);
+		}
+	}
+	
+	/**
+	 * map the first slots of the file, which grows to hold them. The segments that are already whole
+	 * are kept; the last one is mapped again if it grows
+	 * @param capacity number of slots, more than are mapped
+	 * @throws IOException
+	 */
+	private void map(long capacity) throws IOException {
+		int n = (int) ((capacity + SEGMENT_SLOTS - 1) >>> SEGMENT_SHIFT); //number of segments
+		MappedByteBuffer[] grown = Arrays.copyOf(segments, n);
+		
+		for (int i = Math.max(segments.length - 1, 0); i < n; i++) {
+			long start = (long) i << SEGMENT_SHIFT; //first slot of the segment
+			long size = Math.min(SEGMENT_SLOTS, capacity - start); //number of slots of the segment
+			
+			if (grown[i] != null) {
+				grown[i].force();
+			}
+			grown[i] = channel.map(FileChannel.MapMode.READ_WRITE, start * SLOT, size * SLOT);
+		}
+		segments = grown;
+		this.capacity = capacity;
+	}
+	
+	/**
+	 * return the segment of a slot
+	 * @param slot the slot
+	 * @return the buffer
+	 */
+	private MappedByteBuffer segment(int slot) {
+		return segments[slot >>> SEGMENT_SHIFT];
+	}
+	
+	/**
+	 * return the offset of a slot in its segment
+	 * @param slot the slot
+	 * @return offset in bytes
+	 */
+	private static int offset(int slot) {
+		return (slot & (SEGMENT_SLOTS - 1)) * SLOT;
+	}
+	
+	@Override
+	protected void readSlot(int slot, byte[] buf) {
+		segment(slot).get(offset(slot), buf);
+	}
+	
+	@Override
+	protected void writeSlot(int slot, byte[] buf) throws IOException {
+		if (slot < 0) { //the int slot numbers ran out
+			throw new IOException("mapped disk full!");
+		}
+		
+		if (slot >= capacity) {
+			long grown = capacity; //number of slots of the new mapping
+			while (slot >= grown) {
+				grown *= 2;
+			}
+			
+			//past the first segment, grow by whole segments instead of doubling the file
+			if (grown > SEGMENT_SLOTS) {
+				grown = ((long) (slot >>> SEGMENT_SHIFT) + 1) << SEGMENT_SHIFT;
+			}
+			map(grown);
+		}
+		segment(slot).put(offset(slot), buf);
+	}
+	
+	@Override
+	protected void clearSlot(int slot) {
+		segment(slot).put(offset(slot), (byte) 0);
+	}
+	
+	@Override
+	public void force() {
+		for (int i = 0; i < segments.length; i++) {
+			segments[i].force();
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+}
@@ -1,11 +1,10 @@
-import java.util.concurrent.Semaphore;
-
 /**
- * simulation of a process
+ * simulation of a process. This is only the state of the process (its process control block); the
+ * scheduler runs its quanta on the thread of a free CPU
  * @author Ajevan
  *
  */
-public class Process extends Thread {
+public class Process {
 
 	public enum State {
 		STARTED,
@@ -14,19 +13,24 @@ public class Process extends Thread {
 		FINISHED
 	}
 	
+	public static final double QUANTUM = 1000; //default quantum
+	
+	private double lastTime; //the last time this process was paused; its arrival time before it first runs
+	private double waitTime = 0; //the amount of time this process spent waiting
+	private double quantum = QUANTUM; //longest time this process runs at once
+	
 	private String name;
 	private Scheduler sch;
 	
 	private int arrivalTime;
-	private double execTime;
+	private volatile double execTime; //read by the scheduler while the process runs on a CPU
 	public static double time = 0; //simulated clock of system
 	
-	private boolean finished = false; //true if the process is finished
+	private volatile boolean finished = false; //true if the process is finished
 	public State state; //the current state of the process
 	
 	private VMM vmm; //the VMM object
-	private boolean alreadyRun = false; //true if this process is already running
-	private Semaphore alreadyRunSem = new Semaphore(1, true); //control access to alreadyRun
+	private volatile boolean alreadyRun = false; //true if this process is already running
 	
 	/**
 	 * process constructor
@@ -38,18 +42,24 @@ public class Process extends Thread {
 		this.name = name;
 		this.arrivalTime = arrivalTime;
 		this.execTime = exectime;
+		this.lastTime = arrivalTime;
 	}
 	
 	/**
 	 * get the state of this process; true if already running, false otherwise.
 	 * @return alreadyRun
-	 * @throws InterruptedException
 	 */
-	public boolean getRunState() throws InterruptedException {
-		alreadyRunSem.acquire();
-		boolean val = alreadyRun;
-		alreadyRunSem.release();
-		return val;
+	public boolean getRunState() {
+		return alreadyRun;
+	}
+	
+	/**
+	 * set the state of this process. The scheduler marks a process as running before it gives it a CPU,
+	 * so that the process isn't given the other CPU too before its quantum has started running
+	 * @param run true if running, false otherwise
+	 */
+	public void setRunState(boolean run) {
+		alreadyRun = run;
 	}
 	
 	/**
@@ -68,6 +78,22 @@ public class Process extends Thread {
 		this.sch = sch;
 	}
 	
+	/**
+	 * set the longest time this process runs the next time it gets a CPU
+	 * @param quantum length of the quantum
+	 */
+	public void setQuantum(double quantum) {
+		this.quantum = quantum;
+	}
+	
+	/**
+	 * return the time this process spent waiting
+	 * @return waitTime
+	 */
+	public double getWaitTime() {
+		return this.waitTime;
+	}
+	
 	/**
 	 * pass the VMM object to this process
 	 * @param vmm the VMM that is handling the memory accesses
@@ -107,6 +133,14 @@ public class Process extends Thread {
 		return finished;
 	}
 	
+	/**
+	 * end the process because its quantum failed, so that the scheduler doesn't wait for it. It stays
+	 * marked as running, like a process that finished
+	 */
+	public void fail() {
+		finished = true;
+	}
+	
 	/**
 	 * return the current time in the system
 	 * @return time
@@ -119,20 +153,25 @@ public class Process extends Thread {
 	 * advance the system time by a random time within the quantum length
 	 * @return the random number amount by which time was advanced
 	 */
-	synchronized public double advanceTime() {
+	public double advanceTime() {
 		//random number between 100 and 1000
-		//max is 1000 since the quantum is 1000
+		//max is 1000 since the default quantum is 1000
 		//min is 100 for convenience
 		double rndNum = Math.random();
 		rndNum = (rndNum * 900) + 101;
 		rndNum = (double) (int) rndNum;
 		
+		//if the random time is greater than the quantum of the policy
+		if (rndNum > quantum) {
+			rndNum = quantum;
+		}
+		
 		//if the random time is greater than the remaining execution time
 		if (rndNum > execTime) {
 			rndNum = execTime;
 		}
 		
-		time += rndNum;
+		advanceTime(rndNum); //both CPUs move the same clock
 		return rndNum;
 	}
 	
@@ -146,54 +185,42 @@ public class Process extends Thread {
 		}
 	}
 	
-	@SuppressWarnings("deprecation")
-	public void run() {
+	/**
+	 * run this process for one quantum on the calling thread: either one command with the VMM, or a random
+	 * time within the quantum if there are no commands left. The process stays marked as running if it finished
+	 * @throws Exception
+	 */
+	public void runQuantum() throws Exception {
+		double start = time; //time at which this process got the CPU
+		waitTime += time - lastTime;
+		sch.getStats().resumed(this, start);
+		sch.getBufferedwriter().write(String.format("Time: %.0f, Process %s, %s\n", time, name, State.RESUMED));
+		System.out.println(String.format("Time %.2f, Process %s, %s\n", time, name, State.RESUMED));
+		
+		Command c = sch.getCmd();
 		
-		try {
-			while (true) {
-				alreadyRunSem.acquire();
-				alreadyRun = true;
-				alreadyRunSem.release();
-				
-				sch.getBufferedwriter().write(String.format("Time: %.0f, Process %s, %s\n", time, name, State.RESUMED));
-				System.out.println(String.format("Time %.2f, Process %s, %s\n", time, name, State.RESUMED));
-				
-				Command c = sch.getCmd();
-				
-				if (c != null) {
-					vmm.setCmd(c); //pass the command to vmm
-					vmm.setProc(this); //let the vmm know which process is executing this command
-					vmm.resume();
-					this.suspend(); //wait for the vmm to finish
-				}
-				else {
-					execTime -= advanceTime();
-				}
-				
-				sch.getBufferedwriter().write(String.format("Time: %.0f, Process %s, %s\n", time, name, State.PAUSED));
-				System.out.println(String.format("Time %.2f, Process %s, %s\n", time, name, State.PAUSED));
-				
-				//check if the process has finished
-				if (execTime <= 0) {
-					
-					finished = true;
-					sch.getBufferedwriter().write(String.format("Time: %.0f, Process %s, %s\n", time, name, State.FINISHED));
-					System.out.println(String.format("Time %.2f, Process %s, %s\n", time, name, State.FINISHED));
-					sch.schSem.release(); //give the processor back
-					break;
-				}
-				
-				alreadyRunSem.acquire();
-				alreadyRun = false;
-				alreadyRunSem.release();
-				
-				sch.schSem.release(); //give the processor back
-				this.suspend();
-			}
+		if (c != null) {
+			vmm.execute(c, this); //returns once the vmm has finished the command
 		}
+		else {
+			execTime -= advanceTime();
+		}
+		
+		lastTime = time;
+		sch.getStats().paused(this, start, time);
+		sch.getBufferedwriter().write(String.format("Time: %.0f, Process %s, %s\n", time, name, State.PAUSED));
+		System.out.println(String.format("Time %.2f, Process %s, %s\n", time, name, State.PAUSED));
 		
-		catch(Exception ex) {
-			System.out.println("Something went wrong in the Process object run method: " + ex.getMessage());
+		//check if the process has finished
+		if (execTime <= 0) {
+			
+			finished = true;
+			sch.getStats().finished(this, time);
+			sch.getBufferedwriter().write(String.format("Time: %.0f, Process %s, %s\n", time, name, State.FINISHED));
+			System.out.println(String.format("Time %.2f, Process %s, %s\n", time, name, State.FINISHED));
+			return;
 		}
+		
+		alreadyRun = false;
 	}
 }
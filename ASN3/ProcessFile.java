@@ -0,0 +1,334 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * reads the processes of a process file one at a time, in order of arrival time, without keeping them
+ * in memory. The file holds an arrival time and a burst time per process, and the id of a process is
+ * its index in the file. A first pass checks the file; if the processes are already sorted by arrival
+ * time the second pass reads the file itself, otherwise the processes are sorted on disk first (sorted
+ * runs of RUN_SIZE processes, merged while reading). Processes with the same arrival time keep the
+ * order of the file, like a stable sort
+ * @author Ajevan
+ *
+ */
+public class ProcessFile {
+	
+	public static final int BUFFER_SIZE = 1 << 16; //bytes read or written at once
+	public static final int RUN_SIZE = 1 << 20; //processes sorted in memory at once
+	
+	private File file; //the process file
+	private long count = 0; //number of processes in the file
+	private boolean sorted = true; //true if the file is sorted by arrival time
+	
+	private Tokenizer tokens = null; //reader of the process file, if it is sorted
+	private ArrayList<File> runs = new ArrayList<File>(); //sorted runs, if the file isn't sorted
+	private PriorityQueue<Run> heads = new PriorityQueue<Run>(); //next process of every sorted run
+	
+	private int id = -1; //current process
+	private int arrivalTime;
+	private int burstTime;
+	
+	/**
+	 * reader of the integers of a text file, separated by whitespace. Like Scanner.hasNextInt, it stops
+	 * at the first token that isn't an integer
+	 */
+	private static class Tokenizer {
+		private InputStream in;
+		private int c; //next character; -1 at the end of the file
+		private long value; //the integer read by next
+		
+		private Tokenizer(File file) throws IOException {
+			in = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+			c = in.read();
+		}
+		
+		/**
+		 * read the next integer
+		 * @return true if there is one, false at the end of the file or at a token that isn't an integer
+		 * @throws IOException
+		 */
+		private boolean next() throws IOException {
+			while (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+				c = in.read();
+			}
+			
+			boolean negative = c == '-';
+			if (negative) {
+				c = in.read();
+			}
+			if (c < '0' || c > '9') {
+				return false;
+			}
+			
+			value = 0;
+			while (c >= '0' && c <= '9') {
+				value = 10*value + (c - '0');
+				
+				if (value > Integer.MAX_VALUE + 1L) {
+					return false;
+				}
+				c = in.read();
+			}
+			
+			if (c != -1 && c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+				return false;
+			}
+			
+			value = negative ? -value : value;
+			return value <= Integer.MAX_VALUE;
+		}
+		
+		private int value() {
+			return (int) value;
+		}
+		
+		private void close() throws IOException {
+			in.close();
+		}
+	}
+	
+	/**
+	 * a sorted run on disk; ordered by the arrival time and then the id of its next process
+	 */
+	private static class Run implements Comparable<Run> {
+		private DataInputStream in;
+		private int id;
+		private int arrivalTime;
+		private int burstTime;
+		
+		private Run(File file) throws IOException {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE));
+		}
+		
+		/**
+		 * read the next process of the run
+		 * @return false if the run is done
+		 * @throws IOException
+		 */
+		private boolean next() throws IOException {
+			try {
+				arrivalTime = in.readInt();
+				id = in.readInt();
+				burstTime = in.readInt();
+				return true;
+			}
+			catch (EOFException ex) {
+				in.close();
+				return false;
+			}
+		}
+		
+		@Override
+		public int compareTo(Run r) {
+			int c = Integer.compare(arrivalTime, r.arrivalTime);
+			return c != 0 ? c : Integer.compare(id, r.id);
+		}
+	}
+	
+	/**
+	 * open a process file
+	 * @param fn filename of the process file
+	 * @throws Exception if the file is missing or invalid
+	 */
+	public ProcessFile(String fn) throws Exception {
+		this.file = new File(fn);
+		Tokenizer t = new Tokenizer(file);
+		long numOfElements = 0; //number of elements in the file
+		int lastArrival = Integer.MIN_VALUE; //arrival time of the previous process
+		
+		//count the elements, make sure there isn't missing or invalid data and check the order
+		try {
+			while (t.next()) {
+				int arrival = t.value();
+				
+				if (!t.next()) {
+					numOfElements++;
+					break;
+				}
+				numOfElements += 2;
+				
+				if (arrival < 1 || t.value() < 0) {
+					throw new Exception("Arrival time is less than system start time or burst time is negative!");
+				}
+				if (arrival < lastArrival) {
+					sorted = false;
+				}
+				lastArrival = arrival;
+			}
+		}
+		finally {
+			t.close();
+		}
+		
+		if (numOfElements % 2 != 0) {
+			throw new Exception("Number of elements in file is odd");
+		}
+		if (numOfElements / 2 > Integer.MAX_VALUE) {
+			throw new Exception("Too many processes in file");
+		}
+		count = numOfElements / 2;
+		
+		if (sorted) {
+			tokens = new Tokenizer(file);
+		}
+		else {
+			sortRuns();
+		}
+	}
+	
+	/**
+	 * write the processes of the file to sorted runs of RUN_SIZE processes and start merging them
+	 * @throws IOException
+	 */
+	private void sortRuns() throws IOException {
+		Tokenizer t = new Tokenizer(file);
+		long[] keys = new long[(int) Math.min(count, RUN_SIZE)]; //arrival time and id of every process of a run
+		int[] bursts = new int[keys.length]; //burst time of every process of a run, by id - first id of the run
+		int id = 0;
+		
+		try {
+			while (id < count) {
+				int first = id; //first id of this run
+				int n = 0; //number of processes in this run
+				
+				for (; n < keys.length && id < count; n++, id++) {
+					t.next();
+					int arrival = t.value();
+					t.next();
+					keys[n] = ((long) arrival << 32) | id;
+					bursts[n] = t.value();
+				}
+				
+				//ids are unique, so sorting on arrival time then id is stable
+				Arrays.sort(keys, 0, n);
+				
+				File run = File.createTempFile("processes", ".run");
+				run.deleteOnExit();
+				runs.add(run);
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run), BUFFER_SIZE));
+				
+				for (int i = 0; i < n; i++) {
+					int runId = (int) keys[i];
+					out.writeInt((int) (keys[i] >>> 32));
+					out.writeInt(runId);
+					out.writeInt(bursts[runId - first]);
+				}
+				out.close();
+			}
+		}
+		finally {
+			t.close();
+		}
+		
+		for (int i = 0; i < runs.size(); i++) {
+			Run r = new Run(runs.get(i));
+			if (r.next()) {
+				heads.add(r);
+			}
+		}
+	}
+	
+	/**
+	 * return the number of processes in the file
+	 * @return count
+	 */
+	public long getCount() {
+		return this.count;
+	}
+	
+	/**
+	 * returns true if the file was already sorted by arrival time
+	 * @return sorted
+	 */
+	public boolean isSorted() {
+		return this.sorted;
+	}
+	
+	/**
+	 * move to the next process in order of arrival time
+	 * @return false if there are no more processes
+	 * @throws IOException
+	 */
+	public boolean next() throws IOException {
+		if (id + 1 >= count && sorted) {
+			return false;
+		}
+		
+		if (sorted) {
+			tokens.next();
+			arrivalTime = tokens.value();
+			tokens.next();
+			burstTime = tokens.value();
+			id++;
+			return true;
+		}
+		
+		Run r = heads.poll();
+		if (r == null) {
+			return false;
+		}
+		
+		id = r.id;
+		arrivalTime = r.arrivalTime;
+		burstTime = r.burstTime;
+		
+		if (r.next()) {
+			heads.add(r);
+		}
+		return true;
+	}
+	
+	/**
+	 * return the id of the current process, which is its index in the file
+	 * @return id
+	 */
+	public int getId() {
+		return this.id;
+	}
+	
+	/**
+	 * return the arrival time of the current process
+	 * @return arrivalTime
+	 */
+	public int getArrivalTime() {
+		return this.arrivalTime;
+	}
+	
+	/**
+	 * return the burst time of the current process
+	 * @return burstTime
+	 */
+	public int getBurstTime() {
+		return this.burstTime;
+	}
+	
+	/**
+	 * close the file and delete the sorted runs
+	 * @throws IOException
+	 */
+	public void close() throws IOException {
+		if (tokens != null) {
+			tokens.close();
+		}
+		
+		while (!heads.isEmpty()) {
+			heads.poll().in.close();
+		}
+		
+		for (int i = 0; i < runs.size(); i++) {
+			runs.get(i).delete();
+		}
+	}
+
+}
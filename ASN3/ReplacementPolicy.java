@@ -0,0 +1,41 @@
+/**
+ * policy that decides which variable in main memory is swapped out to disk when a variable on disk
+ * is needed and main memory is full. The VMM tells the policy when a variable was loaded into main
+ * memory, when a variable in main memory was accessed and when a variable was released
+ * @author Ajevan
+ *
+ */
+public interface ReplacementPolicy {
+	
+	/**
+	 * return the name of the policy, for the output
+	 * @return name
+	 */
+	String getName();
+	
+	/**
+	 * a variable was put in main memory
+	 * @param v the variable
+	 */
+	void loaded(Variable v);
+	
+	/**
+	 * a variable in main memory was accessed, i.e. a hit
+	 * @param v the variable
+	 */
+	void accessed(Variable v);
+	
+	/**
+	 * a variable left main memory because it was released
+	 * @param v the variable
+	 */
+	void removed(Variable v);
+	
+	/**
+	 * choose the variable that is swapped out, and forget it. Main memory is full
+	 * @param id id of the variable that needs the frame
+	 * @return the variable to swap out
+	 */
+	Variable victim(String id);
+
+}
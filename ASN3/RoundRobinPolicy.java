@@ -0,0 +1,68 @@
+import java.util.LinkedHashSet;
+
+/**
+ * non-preemptive round-robin: the ready processes take turns in the order they became ready, and a
+ * process that got a CPU goes to the back of the line
+ * @author Ajevan
+ *
+ */
+public class RoundRobinPolicy implements SchedulingPolicy {
+	
+	private final double quantum; //longest time a process runs at once
+	
+	private LinkedHashSet<Process> readyq = new LinkedHashSet<Process>(); //ready processes, next turn first
+	
+	/**
+	 * round-robin constructor
+	 * @param quantum longest time a process runs at once
+	 */
+	public RoundRobinPolicy(double quantum) {
+		if (quantum <= 0) {
+			throw new IllegalArgumentException("Quantum must be positive!");
+		}
+		this.quantum = quantum;
+	}
+	
+	@Override
+	public String getName() {
+		return String.format("RR(q=%.0f)", quantum);
+	}
+	
+	@Override
+	public void add(Process p, double time) {
+		readyq.add(p);
+	}
+	
+	@Override
+	public Process next(double time) {
+		for (Process p : readyq) {
+			if (!p.getRunState()) {
+				return p;
+			}
+		}
+		return null;
+	}
+	
+	@Override
+	public double quantum(Process p) {
+		return quantum;
+	}
+	
+	@Override
+	public void ran(Process p, double time) {
+		//move the process to the back of the line
+		readyq.remove(p);
+		readyq.add(p);
+	}
+	
+	@Override
+	public void remove(Process p) {
+		readyq.remove(p);
+	}
+	
+	@Override
+	public boolean isEmpty() {
+		return readyq.isEmpty();
+	}
+
+}
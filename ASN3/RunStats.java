@@ -0,0 +1,249 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+
+/**
+ * summary statistics of a run of the scheduler: turnaround and response times, CPU utilization,
+ * throughput, context switches, the percentiles of the waiting times and the replacement policy of the
+ * vmm with its hits, misses and swaps. The scheduler and the
+ * processes report to it as they go, from the scheduler thread and from both CPU threads, and at the
+ * end it writes the statistics as JSON (base.stats.json) and as CSV, a header line and a line of
+ * values (base.stats.csv)
+ * @author Ajevan
+ *
+ */
+public class RunStats {
+	
+	public static final double[] PERCENTILES = {50, 95, 99};
+	
+	private int cpus; //number of CPUs
+	
+	private HashSet<Process> waiting = new HashSet<Process>(); //processes that arrived and haven't run yet
+	private HashMap<Thread, Process> lastOnCpu = new HashMap<Thread, Process>(); //process that ran last on each CPU thread
+	
+	private long processes = 0; //number of processes that arrived
+	private long finished = 0; //number of processes that finished
+	private double firstArrival = -1; //arrival time of the first process
+	private double lastTime = 0; //time of the last event
+	private double busyTime = 0; //time the CPUs ran a process, added over the CPUs
+	private long quanta = 0; //number of times a process got a CPU
+	private long contextSwitches = 0; //number of times a CPU went to another process than the one before
+	
+	private String replacement = "LRU"; //name of the replacement policy of the vmm
+	private long hits = 0; //stores and lookups of a variable in main memory
+	private long misses = 0; //stores and lookups of a variable that wasn't in main memory
+	private long swaps = 0; //number of swaps
+	
+	private Histogram waits = new Histogram(); //waiting times
+	private Histogram responses = new Histogram(); //first RESUMED minus arrival
+	private Histogram turnarounds = new Histogram(); //FINISHED minus arrival
+	
+	/**
+	 * run statistics constructor
+	 * @param cpus number of CPUs, for the utilization
+	 */
+	public RunStats(int cpus) {
+		this.cpus = cpus;
+	}
+	
+	/**
+	 * record that a process arrived
+	 * @param p the process
+	 */
+	public synchronized void arrived(Process p) {
+		if (processes++ == 0) {
+			firstArrival = p.getArrivalTime();
+		}
+		waiting.add(p);
+	}
+	
+	/**
+	 * record that a process got a CPU; called on the thread of that CPU
+	 * @param p the process
+	 * @param time the time at which the process got the CPU
+	 */
+	public synchronized void resumed(Process p, double time) {
+		lastTime = Math.max(lastTime, time);
+		
+		if (waiting.remove(p)) {
+			responses.record(time - p.getArrivalTime());
+		}
+		
+		Process last = lastOnCpu.put(Thread.currentThread(), p);
+		if (last != null && last != p) {
+			contextSwitches++;
+		}
+		quanta++;
+	}
+	
+	/**
+	 * record that a process gave its CPU back
+	 * @param p the process
+	 * @param start the time at which the process got the CPU
+	 * @param end the time at which the process gave the CPU back
+	 */
+	public synchronized void paused(Process p, double start, double end) {
+		lastTime = Math.max(lastTime, end);
+		busyTime += end - start;
+	}
+	
+	/**
+	 * record that a process finished
+	 * @param p the process
+	 * @param time the time at which the process finished
+	 */
+	public synchronized void finished(Process p, double time) {
+		lastTime = Math.max(lastTime, time);
+		turnarounds.record(time - p.getArrivalTime());
+		finished++;
+	}
+	
+	/**
+	 * record the waiting times at the end of the run
+	 * @param arrived the processes that arrived
+	 */
+	public synchronized void waitTimes(ArrayList<Process> arrived) {
+		for (int i = 0; i < arrived.size(); i++) {
+			waits.record(arrived.get(i).getWaitTime());
+		}
+	}
+	
+	/**
+	 * record the replacement policy and the counts of the vmm at the end of the run
+	 * @param vmm the vmm
+	 */
+	public synchronized void memory(VMM vmm) {
+		replacement = vmm.getPolicyName();
+		hits = vmm.getHits();
+		misses = vmm.getMisses();
+		swaps = vmm.getSwaps();
+	}
+	
+	/**
+	 * return the time from the first arrival to the last event
+	 * @return span; 0 if no process arrived
+	 */
+	public synchronized double getSpan() {
+		return firstArrival < 0 ? 0 : lastTime - firstArrival;
+	}
+	
+	/**
+	 * return the share of the span in which the CPUs ran a process
+	 * @return utilization between 0 and 1
+	 */
+	public synchronized double getUtilization() {
+		return getSpan() > 0 ? busyTime / (cpus * getSpan()) : 0;
+	}
+	
+	/**
+	 * return the number of processes that finished per unit of simulated time
+	 * @return throughput
+	 */
+	public synchronized double getThroughput() {
+		return getSpan() > 0 ? finished / getSpan() : 0;
+	}
+	
+	/**
+	 * return the histogram of the waiting times, once the waiting times are recorded
+	 * @return waits
+	 */
+	public Histogram getWaits() {
+		return this.waits;
+	}
+	
+	/**
+	 * the name and value of every statistic, in the order of the output
+	 * @return pairs of name and value
+	 */
+	private String[][] stats() {
+		String[][] general = {
+				{"processes", Long.toString(processes)},
+				{"finished", Long.toString(finished)},
+				{"cpus", Integer.toString(cpus)},
+				{"startTime", num(Math.max(0, firstArrival))},
+				{"finishTime", num(lastTime)},
+				{"busyTime", num(busyTime)},
+				{"utilization", String.format(Locale.ROOT, "%.4f", getUtilization())},
+				{"throughput", String.format(Locale.ROOT, "%.8f", getThroughput())},
+				{"quanta", Long.toString(quanta)},
+				{"contextSwitches", Long.toString(contextSwitches)},
+				{"replacementPolicy", "\"" + replacement + "\""},
+				{"hits", Long.toString(hits)},
+				{"misses", Long.toString(misses)},
+				{"swaps", Long.toString(swaps)}
+		};
+		String[] names = {"waitTime", "responseTime", "turnaroundTime"};
+		Histogram[] histograms = {waits, responses, turnarounds};
+		String[][] all = Arrays.copyOf(general, general.length + names.length * (PERCENTILES.length + 2));
+		int n = general.length;
+		
+		for (int i = 0; i < names.length; i++) {
+			all[n++] = new String[] {names[i] + ".mean", num(histograms[i].getMean())};
+			
+			for (int j = 0; j < PERCENTILES.length; j++) {
+				all[n++] = new String[] {names[i] + ".p" + (int) PERCENTILES[j], num(histograms[i].getPercentile(PERCENTILES[j]))};
+			}
+			all[n++] = new String[] {names[i] + ".max", num(histograms[i].getMax())};
+		}
+		return all;
+	}
+	
+	/**
+	 * format a time with 2 decimal places, whatever the default locale
+	 * @param v the time
+	 * @return the text
+	 */
+	private static String num(double v) {
+		return String.format(Locale.ROOT, "%.2f", v);
+	}
+	
+	/**
+	 * write the statistics to base.stats.json and base.stats.csv
+	 * @param base filename of the statistics, e.g. output for output.stats.json and output.stats.csv
+	 * @throws IOException
+	 */
+	public synchronized void write(String base) throws IOException {
+		String[][] stats = stats();
+		
+		BufferedWriter json = new BufferedWriter(new FileWriter(base + ".stats.json"));
+		json.write("{\n");
+		
+		for (int i = 0; i < stats.length; i++) {
+			String[] key = stats[i][0].split("\\.");
+			
+			//the statistics of a histogram are an object in the JSON
+			if (key.length == 2) {
+				boolean first = i == 0 || !stats[i - 1][0].startsWith(key[0] + ".");
+				boolean last = i == stats.length - 1 || !stats[i + 1][0].startsWith(key[0] + ".");
+				
+				json.write(first ? "  \"" + key[0] + "\": {" : " ");
+				json.write("\"" + key[1] + "\": " + stats[i][1]);
+				json.write(last ? (i == stats.length - 1 ? "}\n" : "},\n") : ",");
+			}
+			else {
+				json.write("  \"" + key[0] + "\": " + stats[i][1] + (i == stats.length - 1 ? "\n" : ",\n"));
+			}
+		}
+		json.write("}\n");
+		json.close();
+		
+		BufferedWriter csv = new BufferedWriter(new FileWriter(base + ".stats.csv"));
+		
+		for (int i = 0; i < stats.length; i++) {
+			csv.write((i > 0 ? "," : "") + stats[i][0]);
+		}
+		csv.write("\n");
+		
+		for (int i = 0; i < stats.length; i++) {
+			csv.write((i > 0 ? "," : "") + stats[i][1]);
+		}
+		csv.write("\n");
+		csv.close();
+	}
+
+}
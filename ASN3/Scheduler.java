@@ -3,11 +3,18 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * simulation of a process scheduler that is responsible for scheduling a given list of processes.
- * The scheduler is running on a machine with two CPUs. The scheduling policy is non-preemptive round-robin
+ * The scheduler is running on a machine with two CPUs. The scheduling policy decides which ready process gets a free
+ * CPU; by default it is non-preemptive round-robin. Each CPU is a worker thread: a process that gets a CPU has its
+ * quantum handed to that thread as a task, and the CPU is given back when the task ends. The summary statistics of the
+ * run go next to the output file, as JSON and CSV
  * @author Ajevan
  *
  */
@@ -15,13 +22,15 @@ public class Scheduler extends Thread {
 
 	private FileWriter filewriter;
 	private BufferedWriter bufferedwriter;
+	private String statsBase; //filename of the statistics, the output file without its extension
+	private RunStats stats = new RunStats(2); //summary statistics of the run
 	
-	private Process[] waitq; //wait queue is where process waits until its arrival time
-	private Process[] readyq = new Process[0]; //ready queue is where process stays until end of execution
+	private ProcessSource waitq; //wait queue is where process waits until its arrival time
+	private Process nextArrival; //the process in the wait queue that arrives first
+	private ArrayList<Process> arrived = new ArrayList<Process>(); //processes that arrived, in order of arrival
+	private SchedulingPolicy policy; //ready queue is where process stays until end of execution; the policy chooses from it
+	private ArrayList<Process> unfinished = new ArrayList<Process>(); //processes that arrived and are still in the policy
 	
-	private int waitInd = 0; //waitq index
-	private int readyInd = -1; //readyq index
-	private int rrInd = 0; //round robin index
 	
 	private boolean isProcessInWaitq = true; //true if there are processes in the wait queue
 	private boolean allProcFinished = false; //true if all processes are finished
@@ -30,9 +39,11 @@ public class Scheduler extends Thread {
 	private VMM vmm; //the VMM
 	private Semaphore cmdSem = new Semaphore(1, true); //control access to cmds
 	public Semaphore schSem = new Semaphore(2, true); //only 2 processors available
+	private ExecutorService cpus = Executors.newFixedThreadPool(2); //the threads that run the quanta of the processes
+	private LinkedBlockingQueue<Process> done = new LinkedBlockingQueue<Process>(); //processes whose quantum ended, for the scheduler to wait on
 	
 	/**
-	 * the scheduler constructor
+	 * the scheduler constructor, with round-robin scheduling
 	 * @param processes array of processes
 	 * @param cmds list of commands
 	 * @param memArraySize size of the main memory
@@ -40,12 +51,79 @@ public class Scheduler extends Thread {
 	 * @throws IOException
 	 */
 	public Scheduler(Process[] processes, Command[] cmds, int memArraySize, String fn) throws IOException {
+		this(processes, cmds, memArraySize, fn, new RoundRobinPolicy(Process.QUANTUM));
+	}
+	
+	/**
+	 * the scheduler constructor
+	 * @param processes array of processes
+	 * @param cmds list of commands
+	 * @param memArraySize size of the main memory
+	 * @param fn filename of the output file
+	 * @param policy chooses the ready process that gets a free CPU
+	 * @throws IOException
+	 */
+	public Scheduler(Process[] processes, Command[] cmds, int memArraySize, String fn, SchedulingPolicy policy) throws IOException {
+		this(ProcessSource.of(processes), cmds, memArraySize, fn, policy);
+	}
+	
+	/**
+	 * the scheduler constructor
+	 * @param processes the processes in order of arrival time; each one is only read when the previous one arrives
+	 * @param cmds list of commands
+	 * @param memArraySize size of the main memory
+	 * @param fn filename of the output file
+	 * @param policy chooses the ready process that gets a free CPU
+	 * @throws IOException
+	 */
+	public Scheduler(ProcessSource processes, Command[] cmds, int memArraySize, String fn, SchedulingPolicy policy) throws IOException {
+		this(processes, cmds, memArraySize, fn, policy, new LruReplacement());
+	}
+	
+	/**
+	 * the scheduler constructor
+	 * @param processes the processes in order of arrival time; each one is only read when the previous one arrives
+	 * @param cmds list of commands
+	 * @param memArraySize size of the main memory
+	 * @param fn filename of the output file
+	 * @param policy chooses the ready process that gets a free CPU
+	 * @param replacement chooses the variable that the vmm swaps out when main memory is full
+	 * @throws IOException
+	 */
+	public Scheduler(ProcessSource processes, Command[] cmds, int memArraySize, String fn, SchedulingPolicy policy,
+			ReplacementPolicy replacement) throws IOException {
+		this(processes, cmds, memArraySize, fn, policy, replacement, DiskStore.file("vm.dat"));
+	}
+	
+	/**
+	 * the scheduler constructor
+	 * @param processes the processes in order of arrival time; each one is only read when the previous one arrives
+	 * @param cmds list of commands
+	 * @param memArraySize size of the main memory
+	 * @param fn filename of the output file
+	 * @param policy chooses the ready process that gets a free CPU
+	 * @param replacement chooses the variable that the vmm swaps out when main memory is full
+	 * @param disk the disk of the vmm
+	 * @throws IOException
+	 */
+	public Scheduler(ProcessSource processes, Command[] cmds, int memArraySize, String fn, SchedulingPolicy policy,
+			ReplacementPolicy replacement, DiskStore disk) throws IOException {
 		this.waitq = processes;
+		this.policy = policy;
 		filewriter = new FileWriter(fn);
 		bufferedwriter = new BufferedWriter(filewriter);
+		statsBase = fn.lastIndexOf('.') > 0 ? fn.substring(0, fn.lastIndexOf('.')) : fn;
 		
 		this.cmds = new ArrayList<Command>(Arrays.asList(cmds));
-		vmm = new VMM(memArraySize);
+		vmm = new VMM(memArraySize, replacement, disk);
+	}
+	
+	/**
+	 * return the processes that arrived so far, in order of arrival
+	 * @return arrived
+	 */
+	public ArrayList<Process> getArrived() {
+		return this.arrived;
 	}
 	
 	/**
@@ -66,6 +144,22 @@ public class Scheduler extends Thread {
 		return c;
 	}
 	
+	/**
+	 * return the summary statistics of the run, which the processes report to
+	 * @return stats
+	 */
+	public RunStats getStats() {
+		return this.stats;
+	}
+	
+	/**
+	 * return the vmm, for its hit, miss and swap counts
+	 * @return vmm
+	 */
+	public VMM getVmm() {
+		return this.vmm;
+	}
+	
 	/**
 	 * return the BufferedWriter object used to write to the output file
 	 * @return bufferedwriter
@@ -75,79 +169,87 @@ public class Scheduler extends Thread {
 	}
 	
 	/**
-	 * return the index of the process with the shortest remaining execution time that is ready
-	 * @return index in ready queue
+	 * run one quantum of a process on a free CPU. The caller has already taken the CPU from schSem;
+	 * it is given back when the quantum ends, and the process is handed to the scheduler through done.
+	 * A process whose quantum fails is ended, so that the scheduler doesn't wait for it forever
+	 * @param p the process that gets the CPU
 	 */
-	private int sjf() {
-		int ind = 0; //index in readyq of the process with the shortest remaining execution time
-		
-		for (int i = 0; i < readyq.length; i++) {
-			if (readyq[i].getExecTime() < readyq[ind].getExecTime()) {
-				ind = i;
+	private void dispatch(final Process p) {
+		cpus.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					p.runQuantum();
+				}
+				catch (Exception ex) {
+					p.fail();
+					System.out.println("Something went wrong in the Process quantum: " + ex.getMessage());
+				}
+				finally {
+					done.add(p);
+					schSem.release(); //give the processor back
+				}
 			}
-		}
-		return ind;
+		});
 	}
 	
-	@SuppressWarnings("deprecation")
 	public void run() {
 		
 		try {
-			vmm.start();
 			vmm.setSch(this); //set this scheduler in vmm so that it can use the bufferedwriter
 			
+			nextArrival = waitq.next();
+			isProcessInWaitq = nextArrival != null;
+			
 			while (!allProcFinished) {
 				boolean newProcStart = false; //true if a NEW process was started. **NOT IF A PROCESS WAS RESUMED**
 				int processors = 0; //number of processors being used
+				Process[] started = new Process[2]; //NEW processes that get a processor
 				
 				//if there are processes waiting & we have reached the arrival time of one of them
 				if (isProcessInWaitq) {
 					schSem.acquire(2); //acquire processors
 					
-					if (Process.time >= waitq[waitInd].getArrivalTime()) {
+					if (Process.time >= nextArrival.getArrivalTime()) {
 						processors = 0;
 						
-						while(isProcessInWaitq && Process.time >= waitq[waitInd].getArrivalTime() && processors < 2) {
-							processors++;
+						while(isProcessInWaitq && Process.time >= nextArrival.getArrivalTime() && processors < 2) {
+							Process p = nextArrival;
+							started[processors++] = p;
 							newProcStart = true;
 							
 							//add process from wait queue to ready queue
-							ArrayList<Process> temparr = new ArrayList<Process>(Arrays.asList(readyq));
-							temparr.add(waitq[waitInd]);
-							readyq = temparr.toArray(new Process[temparr.size()]);
+							policy.add(p, Process.time);
 							
-							waitInd++;
+							arrived.add(p);
+							unfinished.add(p);
+							stats.arrived(p);
+							nextArrival = waitq.next();
 							
-							//if index outside waitq, then no more waiting processes
-							if (waitInd > waitq.length - 1) {
+							//if there is no next arrival, then no more waiting processes
+							if (nextArrival == null) {
 								isProcessInWaitq = false;
 							}
 							
-							readyInd = readyq.length - 1; //the index of the newest process in the ready queue
-							
-							//if the next RR index is this process, we increment the index so that this process
-							//doesn't execute twice
-							if (rrInd == readyInd) {
-								rrInd++;
-							}
-							
 							//ONLY when writing to output, format time to 0 decimal places; in reality time is of type double
 							bufferedwriter.write(String.format("Time: %.0f, Process %s, %s\n", 
-									Process.time, readyq[readyInd].getProcName(), Process.State.STARTED));
+									Process.time, p.getProcName(), Process.State.STARTED));
 							
 							System.out.println(String.format("Time %.2f, Process %s, %s\n", 
-									Process.time, readyq[readyInd].getProcName(), Process.State.STARTED));
+									Process.time, p.getProcName(), Process.State.STARTED));
 							
-							readyq[readyInd].setScheduler(this);
-							readyq[readyInd].setVmm(vmm);
-						}
-						
-						if(processors >= 1) {
-							readyq[readyInd].start();
+							p.setScheduler(this);
+							p.setVmm(vmm);
+							
+							//the policy counts the first quantum of the process like any other
+							p.setQuantum(policy.quantum(p));
+							p.setRunState(true);
+							policy.ran(p, Process.time);
 						}
 						
-						if(processors == 2) {
-							readyq[readyInd-1].start();
+						//the newest process starts first
+						for (int i = processors - 1; i >= 0; i--) {
+							dispatch(started[i]);
 						}
 						
 						if(processors == 1) {
@@ -160,27 +262,29 @@ public class Scheduler extends Thread {
 				}
 				
 				//processes that are just being resumed
-				if(readyq.length > 0 && !newProcStart) {
-					int limit = readyq.length; //if the limit reaches 0 in the loop, then it means there are no processes
-											   //available to resume at the moment
+				if(!policy.isEmpty() && !newProcStart) {
+					done.clear(); //a quantum that ends from here on is seen by policy.next or waited for below
 					
-					while (processors<2 && limit>0) {
+					while (processors<2) {
+						schSem.acquire(); //wait for a free processor
+						Process p = policy.next(Process.time); //choose a process that is not already running
 						
-						if (schSem.tryAcquire()) {
-							//update RR indexing
-							rrInd = rrInd % readyq.length;
+						//no processes available to resume at the moment
+						if (p == null) {
+							schSem.release();
 							
-							//if this process is not already running
-							if (!readyq[rrInd].getRunState()) {
-								readyq[rrInd++].resume();
-								processors++;
+							//every ready process is running: wait until a CPU hands its process back
+							if (processors == 0 && schSem.availablePermits() < 2) {
+								done.take();
 							}
-							else {
-								rrInd++;
-								schSem.release();
-							}
-							limit--;
+							break;
 						}
+						
+						p.setQuantum(policy.quantum(p));
+						p.setRunState(true);
+						policy.ran(p, Process.time);
+						dispatch(p);
+						processors++;
 					}
 				}
 				
@@ -188,28 +292,49 @@ public class Scheduler extends Thread {
 					Process.advanceTime(1);
 				}
 				
-				//remove process in readyq that has finished execution
-				if (readyq.length > 0 && readyq[sjf()].isFinished()) {
-					ArrayList<Process> temparr = new ArrayList<Process>(Arrays.asList(readyq));
-					temparr.remove(sjf());
-					readyq = temparr.toArray(new Process[temparr.size()]);
+				//remove processes in readyq that have finished execution
+				for (int i = unfinished.size() - 1; i >= 0; i--) {
+					if (unfinished.get(i).isFinished()) {
+						policy.remove(unfinished.get(i));
+						unfinished.remove(i);
+					}
 				}
 				
 				//all processes are done
-				if (readyq.length == 0 && !isProcessInWaitq) {
+				if (policy.isEmpty() && !isProcessInWaitq) {
 					allProcFinished = true;
 				}
 			}
 			
-			vmm.setEndVmm(); //tell vmm to end its thread
-			vmm.resume();
-			vmm.join(); //wait for vmm to end
+			cpus.shutdown();
+			cpus.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS); //wait for the last quanta to end
+			
+			bufferedwriter.write("-------------------------------------\nWaiting Times:\n");
+			
+			for (int i = 0; i < arrived.size(); i++) {
+				bufferedwriter.write(String.format("Process %s: %.0f\n", arrived.get(i).getProcName(), arrived.get(i).getWaitTime()));
+			}
+			
+			//which replacement policy gave this output
+			bufferedwriter.write(String.format("-------------------------------------\nReplacement Policy: %s\n"
+					+ "Hits: %d, Misses: %d, Swaps: %d\n", vmm.getPolicyName(), vmm.getHits(), vmm.getMisses(), vmm.getSwaps()));
+			
 			bufferedwriter.close();
+			waitq.close();
+			vmm.close();
+			
+			stats.waitTimes(arrived);
+			stats.memory(vmm);
+			stats.write(statsBase); //next to the output file, e.g. output.stats.json and output.stats.csv
 		}
 		
 		catch(Exception ex) {
 			System.out.println(ex.getMessage());
 			System.out.println(ex.getStackTrace()[0].getLineNumber());
 		}
+		
+		finally {
+			cpus.shutdown();
+		}
 	}
 }
@@ -0,0 +1,57 @@
+/**
+ * policy that decides which ready process gets a free CPU next and for how long. The scheduler tells
+ * the policy when a process becomes ready, when it got a CPU and when it finished. With two CPUs, a
+ * ready process may still be running on the other CPU, so the policy only chooses among the ones that
+ * are not running
+ * @author Ajevan
+ *
+ */
+public interface SchedulingPolicy {
+	
+	/**
+	 * return the name of the policy
+	 * @return name
+	 */
+	String getName();
+	
+	/**
+	 * a process became ready
+	 * @param p the process
+	 * @param time current time
+	 */
+	void add(Process p, double time);
+	
+	/**
+	 * choose the ready process that gets the free CPU next. The process stays in the policy
+	 * @param time current time
+	 * @return the process; null if every ready process is already running
+	 */
+	Process next(double time);
+	
+	/**
+	 * return the longest time the process may run once it gets a CPU
+	 * @param p the process that gets the CPU
+	 * @return length of the quantum
+	 */
+	double quantum(Process p);
+	
+	/**
+	 * a process got a CPU for a quantum
+	 * @param p the process
+	 * @param time current time
+	 */
+	void ran(Process p, double time);
+	
+	/**
+	 * a process finished and leaves the policy
+	 * @param p the process
+	 */
+	void remove(Process p);
+	
+	/**
+	 * returns true if there are no ready processes
+	 * @return true if empty
+	 */
+	boolean isEmpty();
+
+}
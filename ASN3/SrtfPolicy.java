@@ -0,0 +1,69 @@
+import java.util.LinkedHashSet;
+
+/**
+ * shortest remaining time first: of the ready processes that are not running, the one with the
+ * shortest remaining execution time gets the free CPU, and of processes with equal remaining time the
+ * one that became ready first. The remaining time of a running process changes on its own thread, so
+ * the ready processes are scanned instead of kept in a heap
+ * @author Ajevan
+ *
+ */
+public class SrtfPolicy implements SchedulingPolicy {
+	
+	private final double quantum; //longest time a process runs at once
+	
+	private LinkedHashSet<Process> readyq = new LinkedHashSet<Process>(); //ready processes, in the order they became ready
+	
+	/**
+	 * shortest remaining time first constructor
+	 * @param quantum longest time a process runs at once
+	 */
+	public SrtfPolicy(double quantum) {
+		if (quantum <= 0) {
+			throw new IllegalArgumentException("Quantum must be positive!");
+		}
+		this.quantum = quantum;
+	}
+	
+	@Override
+	public String getName() {
+		return String.format("SRTF(q=%.0f)", quantum);
+	}
+	
+	@Override
+	public void add(Process p, double time) {
+		readyq.add(p);
+	}
+	
+	@Override
+	public Process next(double time) {
+		Process shortest = null; //process with the shortest remaining execution time that is not running
+		
+		for (Process p : readyq) {
+			if (!p.getRunState() && (shortest == null || p.getExecTime() < shortest.getExecTime())) {
+				shortest = p;
+			}
+		}
+		return shortest;
+	}
+	
+	@Override
+	public double quantum(Process p) {
+		return quantum;
+	}
+	
+	@Override
+	public void ran(Process p, double time) {
+	}
+	
+	@Override
+	public void remove(Process p) {
+		readyq.remove(p);
+	}
+	
+	@Override
+	public boolean isEmpty() {
+		return readyq.isEmpty();
+	}
+
+}
@@ -1,123 +1,181 @@
-import java.util.ArrayList;
-import java.util.Scanner;
-import java.util.concurrent.Semaphore;
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
+import java.util.HashMap;
 import java.io.IOException;
 
 /**
- * the virtual memory manager
+ * the virtual memory manager. Main memory is an array of frames with a hash index from variable id to
+ * frame and a stack of free frames, so finding, adding and removing a variable in main memory doesn't
+ * scan it; a replacement policy chooses the variable that is swapped out when main memory is full. The
+ * disk is a DiskStore, so a swap reads and writes one slot of it. It handles one memory request at a
+ * time, on the CPU thread of the process that makes the request
  * @author Ajevan
  *
  */
-public class VMM extends Thread {
+public class VMM {
 	
-	private ArrayList<Variable> vars; //list of variables
+	private Variable[] frames; //main memory; each frame holds one variable, or null if it is free
+	private HashMap<String, Integer> index = new HashMap<String, Integer>(); //frame of every variable in main memory, by id
+	private int[] freeFrames; //stack of the frames that are free
+	private int numFree; //number of free frames
 	private int memSize; //size of main memory
+	private ReplacementPolicy policy; //chooses the variable that is swapped out
 	
-	private Command currentCmd = null; //the current command to execute
-	private Semaphore currentCmdSem = new Semaphore(1, true); //control access to currentCmd, so that the vmm handles
-															  //one memory request at a time
+	private long hits = 0; //stores and lookups of a variable in main memory
+	private long misses = 0; //stores and lookups of a variable that isn't in main memory
+	private long swaps = 0; //number of swaps
 	
 	private Scheduler sch; //the scheduler
 	private Process p; //current process p
-	private Semaphore currentProcSem = new Semaphore(1, true); //control access to current process p
 	
-	private File vmFile = new File("vm.txt"); //memory in disk
-	private boolean endVmm = false; //if true, then need to end the vmm
+	private DiskStore disk; //memory in disk
 	
 	
-	public VMM(int memSize) {
-		this.memSize = memSize;
-		vars = new ArrayList<Variable>(0); 
+	/**
+	 * vmm constructor; the least recently accessed variable is swapped out
+	 * @param memSize number of frames of main memory
+	 * @throws IOException
+	 */
+	public VMM(int memSize) throws IOException {
+		this(memSize, new LruReplacement());
 	}
 	
 	/**
-	 * pass the scheduler to the vmm
-	 * @param sch
+	 * vmm constructor
+	 * @param memSize number of frames of main memory
+	 * @param policy chooses the variable that is swapped out
+	 * @throws IOException
 	 */
-	public void setSch(Scheduler sch) {
-		this.sch = sch;
+	public VMM(int memSize, ReplacementPolicy policy) throws IOException {
+		this(memSize, policy, DiskStore.file("vm.dat"));
 	}
 	
 	/**
-	 * pass the process to the vmm
-	 * @param p process that is currently using the vmm
-	 * @throws InterruptedException
+	 * vmm constructor
+	 * @param memSize number of frames of main memory
+	 * @param policy chooses the variable that is swapped out
+	 * @param disk the disk, e.g. a file or a mapped file of slots
 	 */
-	public void setProc(Process p) throws InterruptedException {
-		currentProcSem.acquire();
-		this.p = p;
+	public VMM(int memSize, ReplacementPolicy policy, DiskStore disk) {
+		this.memSize = memSize;
+		this.policy = policy;
+		this.disk = disk;
+		frames = new Variable[memSize];
+		freeFrames = new int[memSize];
+		
+		//the lowest frame is used first
+		for (int i = 0; i < memSize; i++) {
+			freeFrames[i] = memSize - 1 - i;
+		}
+		numFree = memSize;
 	}
 	
 	/**
-	 * pass the current command to execute. 
-	 * currentCmdSem lock won't be released until the VMM has completed the command.
-	 * @param c currentCmd
-	 * @throws InterruptedException
+	 * return the variable with the given id if it is in main memory
+	 * @param id variable id
+	 * @return the variable; null if it isn't in main memory
 	 */
-	public void setCmd(Command c) throws InterruptedException {
-		currentCmdSem.acquire();
-		currentCmd = c;
+	private Variable resident(String id) {
+		Integer frame = index.get(id);
+		return frame == null ? null : frames[frame];
 	}
 	
 	/**
-	 * tell the vmm to end
+	 * record that a variable in main memory was accessed now
+	 * @param v variable in main memory
 	 */
-	public void setEndVmm() {
-		endVmm = true;
+	private void touch(Variable v) {
+		v.setLastAccess(Process.time);
+		policy.accessed(v);
 	}
 	
 	/**
-	 * remove the variable from disk
-	 * @param v variable to remove
-	 * @return true if the variable is removed, false otherwise
-	 * @throws FileNotFoundException
-	 * @throws IOException
+	 * put a variable in a free frame of main memory
+	 * @param v the variable
 	 */
-	private boolean rm(Variable v) throws FileNotFoundException, IOException {
-		
-		if (!vmFile.exists()) {
-			return true;
+	private void load(Variable v) {
+		int frame = freeFrames[--numFree];
+		frames[frame] = v;
+		index.put(v.getId(), frame);
+		policy.loaded(v);
+	}
+	
+	/**
+	 * remove a variable from main memory, which frees its frame. The policy isn't told
+	 * @param id variable id
+	 * @return the variable; null if it wasn't in main memory
+	 */
+	private Variable unload(String id) {
+		Integer frame = index.remove(id);
+		if (frame == null) {
+			return null;
 		}
 		
-		Scanner sc = new Scanner(vmFile);
-		ArrayList<String> ogText = new ArrayList<String>(0); //original variables in disk
-		boolean varRemoved = false;
-		
-		while (sc.hasNext()) {
-			String var = sc.next();
-			String val = sc.next();
-			String lastTime = sc.next();
-			
-			if (v.getId().equals(var)) {
-				varRemoved = true;
-				continue;
+		Variable v = frames[frame];
+		frames[frame] = null;
+		freeFrames[numFree++] = frame;
+		return v;
+	}
+	
+	/**
+	 * return the name of the replacement policy
+	 * @return name
+	 */
+	public String getPolicyName() {
+		return policy.getName();
+	}
+	
+	/**
+	 * return the number of stores and lookups of a variable in main memory
+	 * @return hits
+	 */
+	public long getHits() {
+		return this.hits;
+	}
+	
+	/**
+	 * return the number of stores and lookups of a variable that wasn't in main memory
+	 * @return misses
+	 */
+	public long getMisses() {
+		return this.misses;
+	}
+	
+	/**
+	 * return the number of swaps
+	 * @return swaps
+	 */
+	public long getSwaps() {
+		return this.swaps;
+	}
+	
+	/**
+	 * pass the scheduler to the vmm
+	 * @param sch
+	 */
+	public void setSch(Scheduler sch) {
+		this.sch = sch;
+	}
+	
+	/**
+	 * write the disk through to the device. The variables in main memory aren't on disk until close
+	 * @throws IOException
+	 */
+	public synchronized void checkpoint() throws IOException {
+		disk.force();
+	}
+	
+	/**
+	 * at the end of the run: write the variables in main memory to disk, so that a disk that is opened
+	 * again has every variable, then checkpoint and close the disk
+	 * @throws IOException
+	 */
+	public synchronized void close() throws IOException {
+		for (int i = 0; i < frames.length; i++) {
+			if (frames[i] != null) {
+				disk.write(frames[i]);
 			}
-			
-			//copy variables that need to be rewritten to file
-			ogText.add(var);
-			ogText.add(" ");
-			ogText.add(val);
-			ogText.add(" ");
-			ogText.add(lastTime);
-			ogText.add("\n");
-		}
-		sc.close();
-		
-		FileWriter fw = new FileWriter(vmFile);
-		BufferedWriter bw = new BufferedWriter(fw);
-		
-		//write back variables to file, excluding the removed variable
-		for (int i = 0; i < ogText.size(); i++) {
-			bw.write(ogText.get(i));
 		}
-		
-		bw.close();
-		fw.close();
-		return varRemoved;
+		checkpoint();
+		disk.close();
 	}
 	
 	/**
@@ -130,75 +188,37 @@ public class VMM extends Thread {
 		boolean varFound = false; //variable found or not
 		
 		//check if var already exists in memory
-		if (vars.size() > 0) {
-			for (int i = 0; i < vars.size(); i++) {
-				if (vars.get(i).getId().equals(v.getId())) {
-					
-					vars.get(i).setVal(v.getVal());
-					p.decExecTime(p.advanceTime());
-					vars.get(i).setLastAccess(Process.time);
-					varFound = true;
-				}
-			}
+		Variable mem = resident(v.getId());
+		if (mem != null) {
+			mem.setVal(v.getVal());
+			p.decExecTime(p.advanceTime());
+			touch(mem);
+			varFound = true;
+			hits++;
+		}
+		else {
+			misses++;
 		}
 		
 		//check if var already exists in disk
-		if (!varFound && vmFile.exists()) {
-			Scanner sc = new Scanner(vmFile);
-			ArrayList<String> ogText = new ArrayList<String>(0); //original variables in disk
-			
-			while (sc.hasNext()) {
-				String var = sc.next();
-				String val = sc.next();
-				String lastTime = sc.next();
-				
-				if (v.getId().equals(var)) {
-					
-					val = v.getVal();
-					p.decExecTime(p.advanceTime());
-					lastTime = String.valueOf(Process.time);
-					varFound = true;
-				}
-				
-				//copy variables that need to be rewritten to file
-				ogText.add(var);
-				ogText.add(" ");
-				ogText.add(val);
-				ogText.add(" ");
-				ogText.add(lastTime);
-				ogText.add("\n");
-			}
-			sc.close();
-			
-			FileWriter fw = new FileWriter(vmFile);
-			BufferedWriter bw = new BufferedWriter(fw);
-			
-			//write back variables to file, with updated variable
-			for (int i = 0; i < ogText.size(); i++) {
-				bw.write(ogText.get(i));
-			}
-			
-			bw.close();
-			fw.close();
+		if (!varFound && disk.contains(v.getId())) {
+			p.decExecTime(p.advanceTime());
+			disk.write(new Variable(v.getId(), v.getVal(), Process.time));
+			varFound = true;
 		}
 		
 		//if var doesn't exist and there is room in main memory
-		if (vars.size() < memSize && !varFound) {
+		if (numFree > 0 && !varFound) {
 			
 			p.decExecTime(p.advanceTime());
 			Variable newVar = new Variable(v.getId(), v.getVal(), Process.time);
-			vars.add(newVar);
+			load(newVar);
 		}
 		
 		//if var doesn't exist and there is no room in main memory, then add to disk
 		else if (!varFound) {
-			FileWriter fw = new FileWriter(vmFile, true);
-			BufferedWriter bw = new BufferedWriter(fw);
-			
 			p.decExecTime(p.advanceTime());
-			bw.write(String.format("%s	%s	%s\n", v.getId(), v.getVal(), Process.time));
-			bw.close();
-			fw.close();
+			disk.write(new Variable(v.getId(), v.getVal(), Process.time));
 		}
 		
 		System.out.println(String.format("Time: %s, Process %s, store: var %s, val: %s\n", 
@@ -210,29 +230,26 @@ public class VMM extends Thread {
 	/**
 	 * removes the variable from the memory,so the page which was holding this variable becomes available for storage
 	 * @param v variable to remove
-	 * @throws FileNotFoundException
 	 * @throws IOException
 	 */
-	public void memFree(Variable v) throws FileNotFoundException, IOException {
+	public void memFree(Variable v) throws IOException {
 		boolean varFound = false; //variable found or not
 		
 		//if variable is in main memory
-		for (int i = 0; i < vars.size(); i++) {
-			if (vars.get(i).getId().equals(v.getId())) {
-				
-				vars.remove(i);
-				varFound = true;
-				p.decExecTime(p.advanceTime());
-				
-				System.out.println(String.format("Time: %s, Process %s, release: var %s\n", 
-						p.getTime(), p.getProcName(), v.getId()));
-				sch.getBufferedwriter().write(String.format("Time: %.0f, Process %s, Release: Variable %s\n", 
-						p.getTime(), p.getProcName(), v.getId()));
-			}
+		Variable mem = unload(v.getId());
+		if (mem != null) {
+			policy.removed(mem);
+			varFound = true;
+			p.decExecTime(p.advanceTime());
+			
+			System.out.println(String.format("Time: %s, Process %s, release: var %s\n", 
+					p.getTime(), p.getProcName(), v.getId()));
+			sch.getBufferedwriter().write(String.format("Time: %.0f, Process %s, Release: Variable %s\n", 
+					p.getTime(), p.getProcName(), v.getId()));
 		}
 		
-		if (!varFound) { //if variable is in disk
-			if (rm(v)) {
+		if (!varFound) { //if variable is in disk; before anything was written to disk a release is always reported
+			if (disk.getSlots() == 0 || disk.remove(v.getId())) {
 				p.decExecTime(p.advanceTime());
 				
 				System.out.println(String.format("Time: %s, Process %s, release: var %s\n", 
@@ -247,99 +264,75 @@ public class VMM extends Thread {
 	 * if the variable exists in memory, return its value. Otherwise return -1 
 	 * @param v variable to lookup
 	 * @return value if found, otherwise return -1
-	 * @throws FileNotFoundException
 	 * @throws IOException
 	 */
-	public String memLookup(Variable v) throws FileNotFoundException, IOException {
+	public String memLookup(Variable v) throws IOException {
 		
 		//variable in main memory
-		for (int i = 0; i < vars.size(); i++) {
-			if (vars.get(i).getId().equals(v.getId())) {
-				
-				p.decExecTime(p.advanceTime());
-				vars.get(i).setLastAccess(Process.time);
-				
-				System.out.println(String.format("Time: %s, Process %s, Lookup: Variable %s, Value: %s\n", 
-						p.getTime(), p.getProcName(), v.getId(), v.getVal()));
-				sch.getBufferedwriter().write(String.format("Time: %.0f, Process %s, Lookup: Variable %s, Value: %s\n", 
-						p.getTime(), p.getProcName(), vars.get(i).getId(), vars.get(i).getVal()));
-				
-				return vars.get(i).getVal();
-			}
+		Variable mem = resident(v.getId());
+		if (mem != null) {
+			p.decExecTime(p.advanceTime());
+			touch(mem);
+			hits++;
+			
+			System.out.println(String.format("Time: %s, Process %s, Lookup: Variable %s, Value: %s\n", 
+					p.getTime(), p.getProcName(), v.getId(), v.getVal()));
+			sch.getBufferedwriter().write(String.format("Time: %.0f, Process %s, Lookup: Variable %s, Value: %s\n", 
+					p.getTime(), p.getProcName(), mem.getId(), mem.getVal()));
+			
+			return mem.getVal();
 		}
+		misses++;
 		
-		//vm file doesn't exist
-		if (!vmFile.exists()) {
+		//nothing written to disk yet
+		if (disk.getSlots() == 0) {
 			p.decExecTime(p.advanceTime());
 			return Integer.toString(-1);
 		}
 		
 		//variable in disk
-		Scanner sc = new Scanner(vmFile);
+		Variable d = disk.read(v.getId());
 		
-		while (sc.hasNext()) {
-			String var = sc.next();
-			String val = sc.next();
-			String lastTime = sc.next();
+		//if there is room in main memory
+		if (d != null && numFree > 0) {
 			
-			//if there is room in main memory
-			if (v.getId().equals(var) && vars.size() < memSize) {
-				
-				p.decExecTime(p.advanceTime());
-				vars.add(new Variable(var, val, Process.time));
-				rm(v);
-				sc.close();
-				
-				System.out.println(String.format("Time: %s, Process %s, Lookup: Variable %s, Value: %s\n", 
-						p.getTime(), p.getProcName(), v.getId(), v.getVal()));
-				sch.getBufferedwriter().write(String.format("Time: %.0f, Process %s, Lookup: Variable %s, Value: %s\n", 
-						p.getTime(), p.getProcName(), var, val));
-				
-				return val;
-			}
+			p.decExecTime(p.advanceTime());
+			load(new Variable(d.getId(), d.getVal(), Process.time));
+			disk.remove(d.getId());
 			
-			//if no room in main memory, do swap
-			else if (v.getId().equals(var)) {
-				Variable oldest = vars.get(0);
-				int oldInd = 0;
-				
-				//find the oldest variable to do the swap
-				for (int i = 0; i < vars.size(); i++) {
-					if (vars.get(i).getLastAccess() < oldest.getLastAccess()) {
-						oldest = vars.get(i);
-						oldInd = i;
-					}
-				}
-				
-				vars.remove(oldInd); //main memory now has opening
-				p.decExecTime(p.advanceTime());
-				double swapTime = Process.time - 10;
-				
-				System.out.println(String.format("Time: %s, Memory Manager, Swap: Variable %s with Variable %s\n", 
-						swapTime, v.getId(), oldest.getId()));
-				sch.getBufferedwriter().write(String.format("Time: %.0f, Memory Manager, Swap: Variable %s with "
-						+ "Variable %s\n", swapTime, v.getId(), oldest.getId()));
-				
-				//add the old variable to disk
-				FileWriter fw = new FileWriter(vmFile, true);
-				BufferedWriter bw = new BufferedWriter(fw);
-				bw.write(String.format("%s	%s	%s\n", oldest.getId(), oldest.getVal(), swapTime));
-				bw.close();
-				fw.close();
-				
-				vars.add(new Variable(var, val, Process.time)); //add variable found in disk to main memory
-				rm(v); //and remove variable from disk since now it is in main memory
-				
-				System.out.println(String.format("Time: %s, Process %s, Lookup: Variable %s, Value: %s\n", 
-						p.getTime(), p.getProcName(), v.getId(), v.getVal()));
-				sch.getBufferedwriter().write(String.format("Time: %.0f, Process %s, Lookup: Variable %s, Value: %s\n", 
-						p.getTime(), p.getProcName(), var, val));
-				
-				sc.close();
-				return val;
-			}
+			System.out.println(String.format("Time: %s, Process %s, Lookup: Variable %s, Value: %s\n", 
+					p.getTime(), p.getProcName(), v.getId(), v.getVal()));
+			sch.getBufferedwriter().write(String.format("Time: %.0f, Process %s, Lookup: Variable %s, Value: %s\n", 
+					p.getTime(), p.getProcName(), d.getId(), d.getVal()));
+			
+			return d.getVal();
+		}
+		
+		//if no room in main memory, do swap
+		else if (d != null) {
+			Variable victim = policy.victim(d.getId());
+			unload(victim.getId()); //main memory now has opening
+			swaps++;
+			p.decExecTime(p.advanceTime());
+			double swapTime = Process.time - 10;
+			
+			System.out.println(String.format("Time: %s, Memory Manager, Swap: Variable %s with Variable %s\n", 
+					swapTime, v.getId(), victim.getId()));
+			sch.getBufferedwriter().write(String.format("Time: %.0f, Memory Manager, Swap: Variable %s with "
+					+ "Variable %s\n", swapTime, v.getId(), victim.getId()));
+			
+			//the old variable takes the slot of the variable found in disk, which now goes to main memory
+			disk.remove(d.getId());
+			disk.write(new Variable(victim.getId(), victim.getVal(), swapTime));
+			load(new Variable(d.getId(), d.getVal(), Process.time));
+			
+			System.out.println(String.format("Time: %s, Process %s, Lookup: Variable %s, Value: %s\n", 
+					p.getTime(), p.getProcName(), v.getId(), v.getVal()));
+			sch.getBufferedwriter().write(String.format("Time: %.0f, Process %s, Lookup: Variable %s, Value: %s\n", 
+					p.getTime(), p.getProcName(), d.getId(), d.getVal()));
+			
+			return d.getVal();
 		}
-		sc.close();
 		
 		//if variable doesn't exist
 		p.decExecTime(p.advanceTime());
@@ -347,46 +340,33 @@ public class VMM extends Thread {
 		return Integer.toString(-1);
 	}
 	
-	@SuppressWarnings("deprecation")
-	public void run() {
-		try {
-			while (true) {
-				if (currentCmd != null) {
-					String cmd = currentCmd.getCmd();
-					String var = currentCmd.getVar();
-					String val = currentCmd.getVal();
-					
-					if (cmd.equals("STORE")) {
-						Variable v = new Variable(var, val, Process.time);
-						memStore(v);
-					}
-					
-					else if (cmd.equals("LOOKUP")) {
-						Variable v = new Variable(var, val, Process.time);
-						memLookup(v);
-					}
-					
-					else if (cmd.equals("RELEASE")) {
-						Variable v = new Variable(var, val, Process.time);
-						memFree(v);
-					}
-					
-					currentCmd = null;
-					currentCmdSem.release(); //this now allows another process to ask the vmm to perform a command
-					p.resume(); //vmm done, let process continue
-					currentProcSem.release(); //this now allows another process to set itself as one using the vmm
-				}
-				
-				//terminate VMM thread
-				if (endVmm) {
-					break;
-				}
-				
-				this.suspend(); //wait until another memory access is required
-			}
+	/**
+	 * execute a command for a process. The process waits until the command is done; a process on the
+	 * other CPU that needs the vmm at the same time waits until this command is done first
+	 * @param c the command to execute
+	 * @param p the process that is executing this command
+	 * @throws Exception
+	 */
+	public synchronized void execute(Command c, Process p) throws Exception {
+		this.p = p;
+		
+		String cmd = c.getCmd();
+		String var = c.getVar();
+		String val = c.getVal();
+		
+		if (cmd.equals("STORE")) {
+			Variable v = new Variable(var, val, Process.time);
+			memStore(v);
 		}
-		catch (Exception ex) {
-			System.out.println("Something went wrong in the VMM run method: " + ex.getMessage());
+		
+		else if (cmd.equals("LOOKUP")) {
+			Variable v = new Variable(var, val, Process.time);
+			memLookup(v);
+		}
+		
+		else if (cmd.equals("RELEASE")) {
+			Variable v = new Variable(var, val, Process.time);
+			memFree(v);
 		}
 	}
 
@@ -8,6 +8,9 @@ public class Variable {
 	private String val; //value of the variable
 	private double lastAccess; //last time when this variable was accessed
 	
+	private Variable prev; //variable in main memory that was accessed before this one; null if none
+	private Variable next; //variable in main memory that was accessed after this one; null if none
+	
 	public Variable(String id, String val, double lastAccess) {
 		this.id = id;
 		this.val = val;
@@ -53,5 +56,37 @@ public class Variable {
 	public void setLastAccess(double newAccess) {
 		this.lastAccess = newAccess;
 	}
+	
+	/**
+	 * return the variable in main memory that was accessed before this one
+	 * @return prev; null if this is the least recently accessed
+	 */
+	public Variable getPrev() {
+		return this.prev;
+	}
+	
+	/**
+	 * set the variable in main memory that was accessed before this one
+	 * @param prev
+	 */
+	public void setPrev(Variable prev) {
+		this.prev = prev;
+	}
+	
+	/**
+	 * return the variable in main memory that was accessed after this one
+	 * @return next; null if this is the most recently accessed
+	 */
+	public Variable getNext() {
+		return this.next;
+	}
+	
+	/**
+	 * set the variable in main memory that was accessed after this one
+	 * @param next
+	 */
+	public void setNext(Variable next) {
+		this.next = next;
+	}
 
 }
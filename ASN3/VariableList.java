@@ -0,0 +1,95 @@
+/**
+ * doubly linked list of variables in main memory, linked through the variables themselves, so a
+ * variable is added, moved or removed without searching for it. A variable is in at most one list
+ * at a time
+ * @author Ajevan
+ *
+ */
+public class VariableList {
+	
+	private Variable head = null; //first variable, e.g. the least recently accessed
+	private Variable tail = null; //last variable, e.g. the most recently accessed
+	private int size = 0; //number of variables in the list
+	
+	/**
+	 * return the first variable
+	 * @return head; null if the list is empty
+	 */
+	public Variable getHead() {
+		return this.head;
+	}
+	
+	/**
+	 * return the number of variables in the list
+	 * @return size
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * add a variable to the end of the list
+	 * @param v variable that isn't in a list
+	 */
+	public void addLast(Variable v) {
+		v.setPrev(tail);
+		v.setNext(null);
+		
+		if (tail != null) {
+			tail.setNext(v);
+		}
+		else {
+			head = v;
+		}
+		tail = v;
+		size++;
+	}
+	
+	/**
+	 * remove a variable from the list
+	 * @param v variable in this list
+	 */
+	public void remove(Variable v) {
+		if (v.getPrev() != null) {
+			v.getPrev().setNext(v.getNext());
+		}
+		else {
+			head = v.getNext();
+		}
+		
+		if (v.getNext() != null) {
+			v.getNext().setPrev(v.getPrev());
+		}
+		else {
+			tail = v.getPrev();
+		}
+		v.setPrev(null);
+		v.setNext(null);
+		size--;
+	}
+	
+	/**
+	 * move a variable to the end of the list
+	 * @param v variable in this list
+	 */
+	public void moveToEnd(Variable v) {
+		if (v != tail) {
+			remove(v);
+			addLast(v);
+		}
+	}
+	
+	/**
+	 * remove the first variable of the list
+	 * @return the variable; null if the list is empty
+	 */
+	public Variable poll() {
+		Variable v = head;
+		
+		if (v != null) {
+			remove(v);
+		}
+		return v;
+	}
+
+}